@@ -1,19 +1,40 @@
 package hello.chatting.chat.controller;
 
-import hello.chatting.chat.domain.ChatMessage;
 import hello.chatting.chat.dto.AlarmMessageDto;
+import hello.chatting.chat.dto.AlarmSenderDto;
+import hello.chatting.chat.dto.ChatAckDto;
+import hello.chatting.chat.dto.ChatHistoryReqDto;
+import hello.chatting.chat.dto.ChatMessageDeltaDto;
 import hello.chatting.chat.dto.ChatMessageDto;
+import hello.chatting.chat.dto.ChatMessageEventReqDto;
+import hello.chatting.chat.dto.ChatResumeDto;
 import hello.chatting.chat.service.ChatService;
+import hello.chatting.chat.service.ChatUploadService;
+import hello.chatting.chat.service.MessageEventService;
+import hello.chatting.metrics.ChatMetrics;
+import hello.chatting.metrics.MessageTrace;
+import hello.chatting.metrics.MessageTracer;
+import hello.chatting.notification.service.NotificationDigestService;
+import hello.chatting.websocket.RoomDispatcher;
+import hello.chatting.websocket.SubscriptionTracker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
 import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
 
-import java.util.List;
+import java.security.Principal;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -23,40 +44,166 @@ public class ChatController {
 
     private final SimpMessageSendingOperations messagingTemplate;
     private final ChatService chatService;
+    private final ChatMetrics chatMetrics;
+    private final SubscriptionTracker subscriptionTracker;
+    private final RoomDispatcher roomDispatcher;
+    private final MessageEventService messageEventService;
+    private final ChatUploadService chatUploadService;
+    private final NotificationDigestService notificationDigestService;
+    private final SimpUserRegistry simpUserRegistry;
+
+    private static final String ALARM_SENDER_ATTR = "alarmSender";
 
     @MessageMapping("/alarm")
-    public void sendAlarm(AlarmMessageDto alarmMessageDto) {
+    public void sendAlarm(AlarmMessageDto request, Principal principal, SimpMessageHeaderAccessor headerAccessor) throws Exception {
+        chatService.checkAlarm(principal.getName(), request.getReceiver(), request.getRoomId());
+
+        // 보낸 사람 이름/프로필은 서버 값으로 (연결당 한 번 조회)
+        AlarmSenderDto sender = (AlarmSenderDto) headerAccessor.getSessionAttributes()
+                .computeIfAbsent(ALARM_SENDER_ATTR, key -> chatService.findAlarmSender(principal.getName()));
+        AlarmMessageDto alarmMessageDto = new AlarmMessageDto(
+                sender.name(), request.getReceiver(), request.getContent(), sender.profileImage(), request.getRoomId());
+
+        // 접속해 있지 않으면 요약으로 모아뒀다가 다시 접속할 때 전달
+        if (simpUserRegistry.getUser(alarmMessageDto.getReceiver()) == null) {
+            notificationDigestService.record(alarmMessageDto.getReceiver(), alarmMessageDto);
+            return;
+        }
+
         messagingTemplate.convertAndSendToUser(alarmMessageDto.getReceiver(),
                 "/queue/alarm",
                         alarmMessageDto);
     }
 
+    /**
+     * 메시지 전송 → 보낸 사람에게 ack(clientMsgId → 저장된 id)
+     * 같은 clientMsgId 재전송은 저장/브로드캐스트 없이 원래 id 로 ack
+     */
     @MessageMapping("chat/message")
-    public void message(ChatMessageDto message) throws Exception {
-        ChatMessage entity = ChatMessageDto.toEntity(message);
-        chatService.save(entity);
-        messagingTemplate.convertAndSend("/sub/chat/room/" + message.getRoomId(), message);
+    @SendToUser("/queue/chat/ack")
+    public ChatAckDto message(ChatMessageDto message, Principal principal,
+                              @Header(name = MessageTracer.TRACE_HEADER, required = false) MessageTrace trace) throws Exception {
+        chatMetrics.messageReceived();
+
+        // 보낸 사람은 연결 사용자로 고정
+        message = message.toBuilder().sender(principal.getName()).build();
+        chatService.checkPublish(message.getSender(), message.getRoomId(), message.getType());
+
+        Optional<Long> duplicate = chatService.findDuplicate(message.getSender(), message.getClientMsgId());
+        if (duplicate.isPresent()) {
+            return new ChatAckDto(message.getClientMsgId(), duplicate.get(), message.getRoomId(), true);
+        }
+
+        ChatMessageDto saved;
+        long start = System.nanoTime();
+        try {
+            saved = chatService.save(ChatMessageDto.toEntity(message));
+            chatMetrics.recordSave(System.nanoTime() - start);
+            if (trace != null) {
+                trace.markSaved();
+            }
+        } catch (DataIntegrityViolationException e) {
+            // 중복 제거 창을 벗어난 재전송 → DB 유니크 키에 걸림
+            Long originalId = chatService.findIdByClientMsgId(message.getSender(), message.getClientMsgId())
+                    .orElseThrow(() -> e);
+            return new ChatAckDto(message.getClientMsgId(), originalId, message.getRoomId(), true);
+        }
+
+        // 저장된 메시지는 방 순번(seq)이 붙은 DTO 로 전송 → 클라이언트가 재연결 시 마지막 순번으로 이어받음
+        if (saved != null) {
+            roomDispatcher.publish(message.getRoomId(), saved.getSeq(), saved, trace);
+        } else {
+            roomDispatcher.publish(message.getRoomId(), null, message, trace);
+        }
+        chatMetrics.messageBroadcast(subscriptionTracker.subscriberCount("/sub/chat/room/" + message.getRoomId()));
+
+        if (saved == null || message.getClientMsgId() == null) {
+            return null;
+        }
+        return new ChatAckDto(message.getClientMsgId(), saved.getId(), message.getRoomId(), false);
+    }
+
+    /**
+     * 재연결 후(또는 순번이 비면) 마지막으로 받은 방 순번(afterSeq) 이후 놓친 메시지/변경만 다시 보내줌
+     */
+    @MessageMapping("chat/resume")
+    @SendToUser("/queue/chat/resume")
+    public ChatResumeDto resume(ChatHistoryReqDto dto, Principal principal) {
+        dto.setSender(principal.getName());
+        return chatService.getMessagesAfter(dto);
     }
 
     @MessageMapping("chat/typing")
-    public void typing(ChatMessageDto message) {
-        messagingTemplate.convertAndSend("/sub/chat/room/" + message.getRoomId(), message);
+    public void typing(ChatMessageDto message, Principal principal) throws Exception {
+        message = message.toBuilder().sender(principal.getName()).build();
+        chatService.checkPublish(message.getSender(), message.getRoomId(), message.getType());
+        roomDispatcher.publishTyping(message.getRoomId(), message);
+    }
+
+    /**
+     * 메시지 수정/삭제/반응 → 방에는 변경분(delta)만 전송
+     */
+    @MessageMapping("chat/edit")
+    public void edit(ChatMessageEventReqDto dto, Principal principal) throws Exception {
+        chatService.checkPublish(principal.getName(), dto.getRoomId(), "EDIT");
+        ChatMessageDeltaDto delta = messageEventService.edit(principal.getName(), dto);
+        roomDispatcher.publish(dto.getRoomId(), delta.seq(), delta, null);
+    }
+
+    @MessageMapping("chat/delete")
+    public void delete(ChatMessageEventReqDto dto, Principal principal) throws Exception {
+        chatService.checkPublish(principal.getName(), dto.getRoomId(), "DELETE");
+        ChatMessageDeltaDto delta = messageEventService.delete(principal.getName(), dto);
+        roomDispatcher.publish(dto.getRoomId(), delta.seq(), delta, null);
     }
 
+    @MessageMapping("chat/react")
+    public void react(ChatMessageEventReqDto dto, Principal principal) throws Exception {
+        chatService.checkPublish(principal.getName(), dto.getRoomId(), "REACTION");
+        ChatMessageDeltaDto delta = messageEventService.react(principal.getName(), dto);
+        if (delta != null) {
+            roomDispatcher.publish(dto.getRoomId(), delta.seq(), delta, null);
+        }
+    }
+
+    /**
+     * 첫 페이지(beforeId 없음)면 그 페이지가 반영한 방 순번을 X-Room-Seq 헤더로 내려줌 (재연결/실시간 프레임 이어받기 기준)
+     */
     @PostMapping("/chat/messages")
     @ResponseBody
-    public ResponseEntity<?> getMessages(@RequestBody ChatMessageDto dto) {
-        List<ChatMessageDto> chatMessageDtoList = chatService.getMessageByUserId(dto);
-        return ResponseEntity.ok(chatMessageDtoList);
+    public ResponseEntity<?> getMessages(@RequestBody ChatHistoryReqDto dto, Principal principal) {
+        dto.setSender(principal.getName());
+        if (dto.getSize() == null) {
+            return ResponseEntity.ok(chatService.getMessageByUserId(dto));
+        }
+
+        ChatService.MessagePage page = chatService.getMessagePage(dto);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.seq() != null) {
+            response.header("X-Room-Seq", String.valueOf(page.seq()));
+        }
+        return response.body(page.messages());
     }
 
-    @PostMapping("/chat/upload")
+    /**
+     * 파일 업로드는 upload 스레드풀에서 처리 (완료되면 방에 FILE 메시지 전송)
+     * roomId 는 경로로 받음 → 요청 파라미터를 읽으면 Tomcat 스레드에서 multipart 본문을 읽어버림
+     */
+    @PostMapping("/chat/upload/{roomId}")
     @ResponseBody
-    public ResponseEntity<?> upload(@RequestParam("chatFile") MultipartFile chatFile,
-                                    @RequestParam("roomId") Long roomId,
-                                    @RequestParam("sender") String sender) throws Exception {
-        ChatMessage chatMessage = chatService.chatFileUpload(chatFile, roomId, sender);
-        return ResponseEntity.ok(ChatMessageDto.toDto(chatMessage));
+    public WebAsyncTask<ResponseEntity<?>> upload(@PathVariable Long roomId,
+                                                  MultipartHttpServletRequest request,
+                                                  Principal principal) throws Exception {
+        chatService.checkPublish(principal.getName(), roomId, "FILE");
+        return chatUploadService.upload(roomId, principal.getName(), () -> request.getFile("chatFile"));
+    }
+
+    // STOMP 처리 중 예외 → 보낸 사람에게만 오류 메시지
+    @MessageExceptionHandler
+    @SendToUser(value = "/queue/errors", broadcast = false)
+    public String handleMessageException(Exception e) {
+        log.warn("STOMP 메시지 처리 실패: {}", e.getMessage());
+        return e.getMessage();
     }
 
 }
@@ -0,0 +1,59 @@
+package hello.chatting.chat.controller;
+
+import hello.chatting.chat.service.ChatExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 채팅 이력 내보내기 (관리자)
+ * GET /admin/export/messages?roomId=1&from=2024-01-01T00:00:00&to=2024-02-01T00:00:00&format=ndjson|csv
+ * roomId/from/to 는 생략 가능, 응답은 파일 다운로드로 바로 스트리밍
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/admin/export")
+public class ChatExportController {
+
+    private final ChatExportService chatExportService;
+
+    @GetMapping("/messages")
+    public void exportMessages(@RequestParam(value = "roomId", required = false) Long roomId,
+                               @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                               @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                               @RequestParam(value = "format", defaultValue = "ndjson") String format,
+                               HttpServletResponse response) throws Exception {
+        ChatExportService.Format exportFormat;
+        try {
+            exportFormat = ChatExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new Exception("지원하지 않는 형식입니다. (ndjson, csv)");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new Exception("조회 기간을 확인해주세요.");
+        }
+
+        String fileName = "chat_" + (roomId != null ? roomId : "all") + "_"
+                + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"))
+                + (exportFormat == ChatExportService.Format.CSV ? ".csv" : ".ndjson");
+
+        chatExportService.export(roomId, from, to, exportFormat, () -> {
+            response.setContentType(exportFormat == ChatExportService.Format.CSV ? "text/csv;charset=UTF-8" : "application/x-ndjson");
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            return response.getOutputStream();
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package hello.chatting.chat.controller;
+
+import hello.chatting.chat.dto.ChunkedUploadInitReqDto;
+import hello.chatting.chat.service.ChatService;
+import hello.chatting.chat.service.ChatUploadService;
+import hello.chatting.chat.service.ChunkedUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.security.Principal;
+
+/**
+ * 분할(재개 가능) 파일 업로드
+ * POST /chat/upload/chunked?roomId= → PUT .../{uploadId}/chunks/{index} (본문 = 조각 바이트) → POST .../{uploadId}/complete
+ * 끊기면 GET .../{uploadId} 로 받은 조각을 확인하고 나머지만 다시 올림
+ * 조각 쓰기/완료는 upload 스레드풀에서 처리 (꽉 차면 503 + Retry-After)
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/chat/upload/chunked")
+public class ChunkedUploadController {
+
+    private final ChatService chatService;
+    private final ChunkedUploadService chunkedUploadService;
+    private final ChatUploadService chatUploadService;
+
+    @PostMapping
+    public ResponseEntity<?> init(@RequestParam("roomId") Long roomId,
+                                  @RequestBody ChunkedUploadInitReqDto dto,
+                                  Principal principal) throws Exception {
+        chatService.checkPublish(principal.getName(), roomId, "FILE");
+        return ResponseEntity.ok(chunkedUploadService.init(principal.getName(), roomId, dto));
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<?> status(@PathVariable String uploadId, Principal principal) throws Exception {
+        return ResponseEntity.ok(chunkedUploadService.status(principal.getName(), uploadId));
+    }
+
+    @PutMapping(value = "/{uploadId}/chunks/{index}", consumes = "application/octet-stream")
+    public WebAsyncTask<ResponseEntity<?>> chunk(@PathVariable String uploadId,
+                                                   @PathVariable int index,
+                                                   @RequestHeader(value = "X-Chunk-Sha256", required = false) String sha256,
+                                                   HttpServletRequest request,
+                                                   Principal principal) {
+        String sender = principal.getName();
+        return chatUploadService.submit(attempt -> ResponseEntity.ok(chunkedUploadService.writeChunk(sender, uploadId, index, sha256,
+                request.getInputStream())), "분할 업로드 조각 실패 uploadId=" + uploadId + ", index=" + index);
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    public WebAsyncTask<ResponseEntity<?>> complete(@PathVariable String uploadId, Principal principal) {
+        String sender = principal.getName();
+        return chatUploadService.submit(attempt -> ResponseEntity.ok(chunkedUploadService.complete(sender, uploadId, attempt)),
+                "분할 업로드 완료 실패 uploadId=" + uploadId);
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<?> cancel(@PathVariable String uploadId, Principal principal) throws Exception {
+        chunkedUploadService.cancel(principal.getName(), uploadId);
+        return ResponseEntity.ok().build();
+    }
+}
@@ -12,7 +12,9 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "chat_message")
+@Table(name = "chat_message", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_chat_message_sender_client_msg_id", columnNames = {"sender", "client_msg_id"})
+})
 public class ChatMessage {
 
     @Id
@@ -31,11 +33,22 @@ public class ChatMessage {
     private String fileName;
     private String fileType;
 
-    @Column(insertable = false, updatable = false)
+    @Column(name = "client_msg_id", length = 36)
+    private String clientMsgId;   // 클라이언트가 만든 메시지 id (재전송 중복 제거)
+
+    private Long seq;             // 방 순번 (RoomSequence, 재연결 이어받기 커서)
+
+    // chat_room_member.active_at 과 같은 애플리케이션 시계 → 최근 메시지 버퍼와 DB 의 created_at 이 같음
+    @Column(updatable = false)
     private LocalDateTime createdAt;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "room_id", insertable = false, updatable = false)
     private ChatRoom chatRoom;
 
+    // 저장 직전 방 순번/저장 시각 지정
+    public void assignSeq(long seq, LocalDateTime createdAt) {
+        this.seq = seq;
+        this.createdAt = createdAt;
+    }
 }
@@ -0,0 +1,47 @@
+package hello.chatting.chat.domain;
+
+import hello.chatting.chatroom.domain.ChatRoom;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 오래된 메시지 보관용 (cold tier)
+ * id 는 chat_message 의 id 를 그대로 사용, PK 는 (room_id, id) 로 방 단위 순차 조회
+ */
+@ToString
+@Getter
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "chat_message_archive")
+public class ChatMessageArchive {
+
+    @Id
+    private Long id;
+
+    @Column(name = "room_id", nullable = false)
+    private Long roomId;
+
+    @Column(nullable = false)
+    private String sender;
+
+    private String message;
+    private String type;
+    private String fileUrl;
+    private String fileName;
+    private String fileType;
+
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime archivedAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "room_id", insertable = false, updatable = false)
+    private ChatRoom chatRoom;
+
+}
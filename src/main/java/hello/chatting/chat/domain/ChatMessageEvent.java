@@ -0,0 +1,50 @@
+package hello.chatting.chat.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 메시지 수정/삭제/반응 이벤트
+ * 원본 메시지(최근/보관 테이블)는 건드리지 않고 이력 조회 시 이벤트를 합쳐서 보여줌
+ * 메시지와 같은 방 순번(seq)을 받아 재연결 시 순번 순서대로 다시 보냄 (반응 수는 chat_message_reaction_count 에서 읽음)
+ */
+@ToString
+@Getter
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "chat_message_event")
+public class ChatMessageEvent {
+
+    public static final String EDIT = "EDIT";
+    public static final String DELETE = "DELETE";
+    public static final String REACTION = "REACTION";
+    public static final String UNREACTION = "UNREACTION"; // 반응 취소
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "message_id", nullable = false)
+    private Long messageId;
+
+    @Column(name = "room_id", nullable = false)
+    private Long roomId;
+
+    @Column(nullable = false)
+    private String actor;
+
+    @Column(nullable = false, length = 16)
+    private String type;
+
+    private String content;   // 수정된 본문 / 반응 이모지 (삭제는 null)
+
+    private Long seq;         // 방 순번 (RoomSequence)
+
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+}
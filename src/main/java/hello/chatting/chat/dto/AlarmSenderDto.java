@@ -0,0 +1,10 @@
+package hello.chatting.chat.dto;
+
+/**
+ * 알림에 표시할 보낸 사람 (서버의 User 기준, 연결당 한 번 조회해 세션 속성에 보관)
+ */
+public record AlarmSenderDto(
+        String name,
+        String profileImage
+) {
+}
@@ -0,0 +1,13 @@
+package hello.chatting.chat.dto;
+
+/**
+ * 메시지 전송 확인 (보낸 사람에게만)
+ * @param duplicate 재전송된 메시지 → 새로 저장하지 않고 원래 id 로 응답
+ */
+public record ChatAckDto(
+        String clientMsgId,
+        Long id,
+        Long roomId,
+        boolean duplicate
+) {
+}
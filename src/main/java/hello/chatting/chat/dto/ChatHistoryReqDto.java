@@ -0,0 +1,19 @@
+package hello.chatting.chat.dto;
+
+import lombok.*;
+
+@Builder(toBuilder = true)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class ChatHistoryReqDto {
+    private Long roomId;
+    private String sender;
+
+    private Long beforeId; // 이 id 보다 이전 메시지 (null 이면 최신 페이지)
+    private Integer size;  // null 이면 전체 이력
+
+    private Long afterSeq; // 재연결 시 마지막으로 받은 방 순번 (이력 첫 페이지의 X-Room-Seq 부터)
+}
@@ -0,0 +1,22 @@
+package hello.chatting.chat.dto;
+
+/**
+ * 메시지 수정/삭제/반응을 방 구독자에게 알리는 작은 프레임 (메시지 전체를 다시 보내지 않음)
+ * messageId 로 대상 메시지를 가리키고, 메시지와 같은 방 순번(seq)을 받음 → 클라이언트는 seq 순서대로 한 번씩만 반영
+ * @param type    EDIT / DELETE / REACTION
+ * @param seq     방 순번 (재연결 커서, 이미 받은 순번은 클라이언트가 건너뜀)
+ * @param message 수정된 본문 (EDIT)
+ * @param emoji   반응 이모지 (REACTION)
+ * @param delta   반응 증감 +1 / -1 (REACTION)
+ */
+public record ChatMessageDeltaDto(
+        String type,
+        Long roomId,
+        Long messageId,
+        Long seq,
+        String actor,
+        String message,
+        String emoji,
+        int delta
+) {
+}
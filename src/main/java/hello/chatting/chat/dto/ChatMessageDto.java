@@ -1,11 +1,13 @@
 package hello.chatting.chat.dto;
 
 import hello.chatting.chat.domain.ChatMessage;
+import hello.chatting.chat.domain.ChatMessageArchive;
 import hello.chatting.chatroom.domain.RoomType;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Slf4j
 @Getter
@@ -17,6 +19,7 @@ public class ChatMessageDto {
 
     private Long id;
     private Long roomId;
+    private Long seq;        // 방 순번 (실시간 프레임, 이력 조회 메시지는 null)
     private String sender;
     private String senderName;
     private String message;
@@ -26,22 +29,64 @@ public class ChatMessageDto {
     private String fileType;
     private LocalDateTime createdAt;
     private RoomType roomType;
+    private String clientMsgId;
+    private boolean edited;
+    private boolean deleted;
+    private Map<String, Long> reactions; // 이모지 → 반응 수
 
 
     // Entity → DTO 변환 (화면)
     public static ChatMessageDto toDto(ChatMessage chatMessage) {
         return ChatMessageDto.builder()
+                .id(chatMessage.getId())
                 .roomId(chatMessage.getRoomId())
+                .seq(chatMessage.getSeq())
                 .sender(chatMessage.getSender())
                 .type(chatMessage.getType())
                 .fileUrl(chatMessage.getFileUrl())
                 .fileName(chatMessage.getFileName())
                 .fileType(chatMessage.getFileType())
                 .message(chatMessage.getMessage())
+                .createdAt(chatMessage.getCreatedAt())
+                .clientMsgId(chatMessage.getClientMsgId())
                 .roomType(chatMessage.getChatRoom() != null ? chatMessage.getChatRoom().getType() : null)
                 .build();
     }
 
+    // 이력 조회 프로젝션 → DTO 변환 (이름이 없는 사용자는 loginId 로 표시)
+    public static ChatMessageDto toDto(ChatMessageView view) {
+        return ChatMessageDto.builder()
+                .id(view.id())
+                .roomId(view.roomId())
+                .sender(view.sender())
+                .senderName(view.senderName() != null ? view.senderName() : view.sender())
+                .type(view.type())
+                .fileUrl(view.fileUrl())
+                .fileName(view.fileName())
+                .fileType(view.fileType())
+                .message(view.message())
+                .createdAt(view.createdAt())
+                .clientMsgId(view.clientMsgId())
+                .roomType(view.roomType())
+                .build();
+    }
+
+    // 보관 메시지 Entity → DTO 변환
+    public static ChatMessageDto toDto(ChatMessageArchive archive) {
+        return ChatMessageDto.builder()
+                .id(archive.getId())
+                .roomId(archive.getRoomId())
+                .sender(archive.getSender())
+                .type(archive.getType())
+                .fileUrl(archive.getFileUrl())
+                .fileName(archive.getFileName())
+                .fileType(archive.getFileType())
+                .message(archive.getMessage())
+                .createdAt(archive.getCreatedAt())
+                .roomType(archive.getChatRoom() != null ? archive.getChatRoom().getType() : null)
+                .build();
+    }
+
     // DTO → Entity 변환
     public static ChatMessage toEntity(ChatMessageDto dto) {
         return ChatMessage.builder()
@@ -52,6 +97,7 @@ public class ChatMessageDto {
                 .fileName(dto.getFileName())
                 .fileType(dto.getFileType())
                 .message(dto.getMessage())
+                .clientMsgId(dto.getClientMsgId())
                 .build();
     }
 }
@@ -0,0 +1,16 @@
+package hello.chatting.chat.dto;
+
+import lombok.*;
+
+@Builder(toBuilder = true)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class ChatMessageEventReqDto {
+    private Long roomId;
+    private Long messageId;
+    private String message; // 수정할 본문
+    private String emoji;   // 반응 이모지 (같은 이모지를 다시 누르면 취소)
+}
@@ -0,0 +1,31 @@
+package hello.chatting.chat.dto;
+
+import hello.chatting.chatroom.domain.RoomType;
+
+import java.time.LocalDateTime;
+
+/**
+ * 이력 조회용 프로젝션 (JPQL 생성자 식으로 바로 생성)
+ * 엔티티/영속성 컨텍스트를 거치지 않고, 보낸 사람 이름과 방 타입도 같은 쿼리에서 가져옴
+ */
+public record ChatMessageView(
+        Long id,
+        Long roomId,
+        String sender,
+        String senderName,
+        String message,
+        String type,
+        String fileUrl,
+        String fileName,
+        String fileType,
+        LocalDateTime createdAt,
+        String clientMsgId,
+        RoomType roomType
+) {
+
+    // 보관 테이블 (client_msg_id 없음)
+    public ChatMessageView(Long id, Long roomId, String sender, String senderName, String message, String type,
+                           String fileUrl, String fileName, String fileType, LocalDateTime createdAt, RoomType roomType) {
+        this(id, roomId, sender, senderName, message, type, fileUrl, fileName, fileType, createdAt, null, roomType);
+    }
+}
@@ -0,0 +1,23 @@
+package hello.chatting.chat.dto;
+
+import java.util.List;
+
+/**
+ * 재연결 시 놓친 메시지 응답 (afterSeq 초과 ~ lastSeq 이하 방 순번 전부)
+ * @param messages 놓친 메시지 (순번 오름차순, 수정/삭제/반응은 합치지 않은 원본 → deltas 로 받음)
+ * @param deltas   놓친 수정/삭제/반응 (순번 오름차순, 하나씩 그대로 반영)
+ * @param lastSeq  응답에 포함된 마지막 방 순번 (다음 재연결 커서)
+ * @param reload   놓친 순번이 너무 많거나 일부가 남아있지 않음(보관/삭제) → 클라이언트가 방을 다시 불러옴
+ */
+public record ChatResumeDto(
+        Long roomId,
+        List<ChatMessageDto> messages,
+        List<ChatMessageDeltaDto> deltas,
+        Long lastSeq,
+        boolean reload
+) {
+
+    public static ChatResumeDto reload(Long roomId) {
+        return new ChatResumeDto(roomId, List.of(), List.of(), null, true);
+    }
+}
@@ -0,0 +1,13 @@
+package hello.chatting.chat.dto;
+
+/**
+ * 조각 한 개 저장 결과
+ * @param sha256 서버가 받은 조각의 SHA-256 (클라이언트가 보낸 값이 없어도 비교할 수 있도록 항상 돌려줌)
+ */
+public record ChunkUploadResultDto(
+        int index,
+        String sha256,
+        int receivedCount,
+        int totalChunks
+) {
+}
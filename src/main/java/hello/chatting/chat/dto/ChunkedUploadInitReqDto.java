@@ -0,0 +1,16 @@
+package hello.chatting.chat.dto;
+
+import lombok.*;
+
+@Builder(toBuilder = true)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class ChunkedUploadInitReqDto {
+    private String fileName;
+    private String fileType;
+    private Long size;       // 전체 파일 크기 (byte)
+    private Integer chunkSize; // null 이면 서버 기본값
+}
@@ -0,0 +1,17 @@
+package hello.chatting.chat.dto;
+
+import java.util.List;
+
+/**
+ * 분할 업로드 진행 상태 (끊긴 뒤 이어 올릴 때 receivedChunks 를 건너뜀)
+ */
+public record ChunkedUploadStatusDto(
+        String uploadId,
+        Long roomId,
+        String fileName,
+        long size,
+        int chunkSize,
+        int totalChunks,
+        List<Integer> receivedChunks
+) {
+}
@@ -0,0 +1,102 @@
+package hello.chatting.chat.repository;
+
+import hello.chatting.chat.domain.ChatMessageArchive;
+import hello.chatting.chat.dto.ChatMessageView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ChatArchiveRepository extends JpaRepository<ChatMessageArchive, Long> {
+
+    @Query("""
+        SELECT new hello.chatting.chat.dto.ChatMessageView(
+            m.id, m.roomId, m.sender, u.name, m.message, m.type,
+            m.fileUrl, m.fileName, m.fileType, m.createdAt, r.type)
+        FROM ChatMessageArchive m
+            JOIN m.chatRoom r
+            LEFT JOIN User u ON u.loginId = m.sender
+            JOIN ChatRoomMember crm ON m.roomId = crm.roomId
+        WHERE m.roomId = :roomId
+          AND crm.userId = :userId
+          AND (crm.activeAt IS NULL OR m.createdAt > crm.activeAt)
+        ORDER BY m.id
+    """)
+    List<ChatMessageView> findMessagesAfterLeave(Long roomId, String userId);
+
+    // 이력 페이지 조회 (beforeId 커서, cutoff 이후, 최신순)
+    @Query("""
+        SELECT new hello.chatting.chat.dto.ChatMessageView(
+            m.id, m.roomId, m.sender, u.name, m.message, m.type,
+            m.fileUrl, m.fileName, m.fileType, m.createdAt, r.type)
+        FROM ChatMessageArchive m
+            JOIN m.chatRoom r
+            LEFT JOIN User u ON u.loginId = m.sender
+        WHERE m.roomId = :roomId
+          AND (:beforeId IS NULL OR m.id < :beforeId)
+          AND (:cutoff IS NULL OR m.createdAt > :cutoff)
+        ORDER BY m.id DESC
+    """)
+    List<ChatMessageView> findPage(Long roomId, Long beforeId, LocalDateTime cutoff, Pageable pageable);
+
+    boolean existsByRoomId(Long roomId);
+
+    // 검색 인덱스 재색인용 (id 기준 keyset 페이징)
+    List<ChatMessageArchive> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // 보관 대상 id (chat_message 기준, 오래된 순)
+    @Query(value = """
+        SELECT id
+        FROM chat_message
+        WHERE created_at < :cutoff
+        ORDER BY id
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<Long> findArchiveTargetIds(LocalDateTime cutoff, int limit);
+
+    @Modifying
+    @Query(value = """
+        INSERT IGNORE INTO chat_message_archive
+            (id, room_id, sender, message, type, file_url, file_name, file_type, created_at)
+        SELECT id, room_id, sender, message, type, file_url, file_name, file_type, created_at
+        FROM chat_message
+        WHERE id IN (:ids)
+    """, nativeQuery = true)
+    int copyFromHot(List<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM chat_message WHERE id IN (:ids)", nativeQuery = true)
+    int deleteFromHot(List<Long> ids);
+
+    // 보존 기간이 지난 보관 메시지 (방 종류별, afterId 이후 keyset)
+    @Query(value = """
+        SELECT m.id AS id, m.room_id AS roomId
+        FROM chat_message_archive m
+            JOIN chat_room r ON r.id = m.room_id
+        WHERE r.type = :roomType
+          AND m.created_at < :cutoff
+          AND m.id > :afterId
+        ORDER BY m.id
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<ChatRepository.RetentionTarget> findRetentionTargets(String roomType, LocalDateTime cutoff, long afterId, int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM chat_message_archive WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIds(Collection<Long> ids);
+
+    @Query(value = """
+        SELECT file_url
+        FROM chat_message_archive
+        WHERE type = 'FILE'
+          AND created_at >= :from
+          AND created_at < :to
+    """, nativeQuery = true)
+    List<String> findFileUrls(LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,89 @@
+package hello.chatting.chat.repository;
+
+import hello.chatting.chat.domain.ChatMessageEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ChatMessageEventRepository extends JpaRepository<ChatMessageEvent, Long> {
+
+    // 이력 조회 시 페이지 메시지들의 수정/삭제 이벤트 (오래된 순 → 마지막 수정이 이김, 반응 행은 제외)
+    @Query("SELECT e FROM ChatMessageEvent e WHERE e.messageId IN :messageIds AND e.type IN ('EDIT', 'DELETE') ORDER BY e.id")
+    List<ChatMessageEvent> findEditsAndDeletes(Collection<Long> messageIds);
+
+    boolean existsByMessageIdAndType(Long messageId, String type);
+
+    // 검색 인덱스 재색인 시 수정/삭제 반영용 (id 기준 keyset 페이징)
+    List<ChatMessageEvent> findByTypeAndIdGreaterThanOrderByIdAsc(String type, Long id, Pageable pageable);
+
+    // 재연결 시 afterSeq 초과 ~ lastSeq 이하 방 순번 이벤트 (순번 오름차순)
+    @Query("SELECT e FROM ChatMessageEvent e WHERE e.roomId = :roomId AND e.seq > :afterSeq AND e.seq <= :lastSeq ORDER BY e.seq")
+    List<ChatMessageEvent> findBySeqRange(Long roomId, long afterSeq, long lastSeq);
+
+    // 반응 추가 (이미 누른 반응이면 0)
+    @Modifying
+    @Query(value = """
+        INSERT IGNORE INTO chat_message_reaction (message_id, user_id, emoji)
+        VALUES (:messageId, :userId, :emoji)
+    """, nativeQuery = true)
+    int insertReaction(Long messageId, String userId, String emoji);
+
+    // 반응 취소 (누르지 않은 반응이면 0)
+    @Modifying
+    @Query(value = """
+        DELETE FROM chat_message_reaction
+        WHERE message_id = :messageId AND user_id = :userId AND emoji = :emoji
+    """, nativeQuery = true)
+    int deleteReaction(Long messageId, String userId, String emoji);
+
+    // 집계 증감 반영 (ReactionCounter flush)
+    @Modifying
+    @Query(value = """
+        INSERT INTO chat_message_reaction_count (message_id, emoji, cnt)
+        VALUES (:messageId, :emoji, GREATEST(:delta, 0))
+        ON DUPLICATE KEY UPDATE cnt = GREATEST(cnt + :delta, 0)
+    """, nativeQuery = true)
+    int addReactionCount(Long messageId, String emoji, long delta);
+
+    @Query(value = """
+        SELECT message_id AS messageId, emoji, cnt
+        FROM chat_message_reaction_count
+        WHERE message_id IN (:messageIds)
+          AND cnt > 0
+    """, nativeQuery = true)
+    List<ReactionCount> findReactionCounts(Collection<Long> messageIds);
+
+    // 방 순번 스냅샷과 맞는 반응 수 (반응 행 기준 → 집계 테이블처럼 ReactionCounter flush 를 기다리지 않음)
+    @Query(value = """
+        SELECT message_id AS messageId, emoji, COUNT(*) AS cnt
+        FROM chat_message_reaction
+        WHERE message_id IN (:messageIds)
+        GROUP BY message_id, emoji
+    """, nativeQuery = true)
+    List<ReactionCount> countReactions(Collection<Long> messageIds);
+
+    // 보존 기간 삭제 시 메시지에 딸린 이벤트/반응도 함께 삭제
+    @Modifying
+    @Query(value = "DELETE FROM chat_message_event WHERE message_id IN (:messageIds)", nativeQuery = true)
+    int deleteEvents(Collection<Long> messageIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM chat_message_reaction WHERE message_id IN (:messageIds)", nativeQuery = true)
+    int deleteReactions(Collection<Long> messageIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM chat_message_reaction_count WHERE message_id IN (:messageIds)", nativeQuery = true)
+    int deleteReactionCounts(Collection<Long> messageIds);
+
+    interface ReactionCount {
+        Long getMessageId();
+        String getEmoji();
+        Long getCnt();
+    }
+}
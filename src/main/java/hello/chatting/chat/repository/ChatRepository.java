@@ -1,25 +1,115 @@
 package hello.chatting.chat.repository;
 
 import hello.chatting.chat.domain.ChatMessage;
+import hello.chatting.chat.dto.ChatMessageView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ChatRepository extends JpaRepository<ChatMessage, Long> {
 
+    // 이력 조회는 모두 ChatMessageView 프로젝션 (엔티티 로딩/영속성 컨텍스트 없이 보낸 사람 이름까지 한 번에)
     @Query("""
-        SELECT m
+        SELECT new hello.chatting.chat.dto.ChatMessageView(
+            m.id, m.roomId, m.sender, u.name, m.message, m.type,
+            m.fileUrl, m.fileName, m.fileType, m.createdAt, m.clientMsgId, r.type)
         FROM ChatMessage m
-            JOIN FETCH m.chatRoom
+            JOIN m.chatRoom r
+            LEFT JOIN User u ON u.loginId = m.sender
             JOIN ChatRoomMember crm ON m.roomId = crm.roomId
         WHERE m.roomId = :roomId
           AND crm.userId = :userId
           AND (crm.activeAt IS NULL OR m.createdAt > crm.activeAt)
         ORDER BY m.createdAt
     """)
-    List<ChatMessage> findMessagesAfterLeave(Long roomId, String userId);
+    List<ChatMessageView> findMessagesAfterLeave(Long roomId, String userId);
 
+    // 최근 메시지 버퍼 채우기용 (방 기준 최신순)
+    @Query("""
+        SELECT new hello.chatting.chat.dto.ChatMessageView(
+            m.id, m.roomId, m.sender, u.name, m.message, m.type,
+            m.fileUrl, m.fileName, m.fileType, m.createdAt, m.clientMsgId, r.type)
+        FROM ChatMessage m
+            JOIN m.chatRoom r
+            LEFT JOIN User u ON u.loginId = m.sender
+        WHERE m.roomId = :roomId
+        ORDER BY m.id DESC
+    """)
+    List<ChatMessageView> findLatestByRoomId(Long roomId, Pageable pageable);
+
+    // 이력 페이지 조회 (beforeId 커서, cutoff 이후, 최신순)
+    @Query("""
+        SELECT new hello.chatting.chat.dto.ChatMessageView(
+            m.id, m.roomId, m.sender, u.name, m.message, m.type,
+            m.fileUrl, m.fileName, m.fileType, m.createdAt, m.clientMsgId, r.type)
+        FROM ChatMessage m
+            JOIN m.chatRoom r
+            LEFT JOIN User u ON u.loginId = m.sender
+        WHERE m.roomId = :roomId
+          AND (:beforeId IS NULL OR m.id < :beforeId)
+          AND (:cutoff IS NULL OR m.createdAt > :cutoff)
+        ORDER BY m.id DESC
+    """)
+    List<ChatMessageView> findPage(Long roomId, Long beforeId, LocalDateTime cutoff, Pageable pageable);
+
+    // 재연결 시 afterSeq 초과 ~ lastSeq 이하 방 순번 메시지 (순번 오름차순, activeAt 이전 메시지도 포함 → 순번 개수 확인 후 걸러냄)
+    @Query("""
+        SELECT new hello.chatting.chat.dto.ChatMessageView(
+            m.id, m.roomId, m.sender, u.name, m.message, m.type,
+            m.fileUrl, m.fileName, m.fileType, m.createdAt, m.clientMsgId, r.type)
+        FROM ChatMessage m
+            JOIN m.chatRoom r
+            LEFT JOIN User u ON u.loginId = m.sender
+        WHERE m.roomId = :roomId
+          AND m.seq > :afterSeq
+          AND m.seq <= :lastSeq
+        ORDER BY m.seq
+    """)
+    List<ChatMessageView> findBySeqRange(Long roomId, long afterSeq, long lastSeq);
+
+    @Query("SELECT m.id FROM ChatMessage m WHERE m.sender = :sender AND m.clientMsgId = :clientMsgId")
+    Optional<Long> findIdByClientMsgId(String sender, String clientMsgId);
+
+    // 검색 인덱스 재색인용 (id 기준 keyset 페이징)
+    List<ChatMessage> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // 보존 기간이 지난 메시지 (방 종류별, afterId 이후 keyset)
+    @Query(value = """
+        SELECT m.id AS id, m.room_id AS roomId
+        FROM chat_message m
+            JOIN chat_room r ON r.id = m.room_id
+        WHERE r.type = :roomType
+          AND m.created_at < :cutoff
+          AND m.id > :afterId
+        ORDER BY m.id
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<RetentionTarget> findRetentionTargets(String roomType, LocalDateTime cutoff, long afterId, int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM chat_message WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIds(Collection<Long> ids);
+
+    // 해당 기간에 저장된 파일 메시지의 file_url (고아 첨부파일 정리)
+    @Query(value = """
+        SELECT file_url
+        FROM chat_message
+        WHERE type = 'FILE'
+          AND created_at >= :from
+          AND created_at < :to
+    """, nativeQuery = true)
+    List<String> findFileUrls(LocalDateTime from, LocalDateTime to);
+
+    interface RetentionTarget {
+        Long getId();
+        Long getRoomId();
+    }
 }
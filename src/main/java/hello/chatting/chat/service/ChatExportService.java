@@ -0,0 +1,189 @@
+package hello.chatting.chat.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 채팅 이력 내보내기 (관리자, 컴플라이언스)
+ * - JDBC 커서(fetch-size 단위로 받아옴)로 한 행씩 읽어 바로 응답에 씀 → 방 크기와 관계없이 메모리 일정
+ * - 엔티티/DTO 를 만들지 않고 ResultSet 에서 바로 NDJSON/CSV 로 기록
+ * - 보관 테이블 → 최근 테이블 순서 (보관 메시지가 항상 더 오래됨)
+ *   읽기 전용 트랜잭션 하나로 읽어 보관 배치가 도중에 옮기는 메시지도 빠지거나 두 번 나오지 않음 (같은 스냅샷)
+ */
+@Slf4j
+@Service
+public class ChatExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final String COLUMNS = "id, room_id, sender, message, type, file_url, file_name, file_type, created_at";
+    private static final String[] HEADER = {"id", "roomId", "sender", "message", "type", "fileUrl", "fileName", "fileType", "createdAt", "tier"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Semaphore permits;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public ChatExportService(DataSource dataSource,
+                             @Value("${chat.export.fetch-size:1000}") int fetchSize,
+                             @Value("${chat.export.max-concurrent:2}") int maxConcurrent) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * @param roomId null 이면 전체 방
+     * @param from   created_at >= from (null 이면 제한 없음)
+     * @param to     created_at < to (null 이면 제한 없음)
+     * @param output 동시 실행 허용 후에 열림 (응답 헤더 설정 + 출력 스트림)
+     * @return 내보낸 메시지 수
+     */
+    @Transactional(readOnly = true)
+    public long export(Long roomId, LocalDateTime from, LocalDateTime to, Format format, Callable<OutputStream> output) throws Exception {
+        if (!permits.tryAcquire()) {
+            throw new Exception("진행 중인 내보내기가 많습니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        long start = System.currentTimeMillis();
+        try (RowWriter writer = format == Format.CSV ? new CsvRowWriter(output.call()) : new NdjsonRowWriter(jsonFactory, output.call())) {
+            long[] count = {0};
+            for (String tier : List.of("archive", "hot")) {
+                List<Object> args = new ArrayList<>();
+                String sql = query(tier.equals("archive") ? "chat_message_archive" : "chat_message", roomId, from, to, args);
+                jdbcTemplate.query(sql, rs -> {
+                    try {
+                        writer.row(rs, tier);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e); // 클라이언트가 끊음 → 커서 중단
+                    }
+                    count[0]++;
+                }, args.toArray());
+            }
+
+            log.info("채팅 이력 내보내기 완료: roomId={}, {} ~ {}, {}건, {}ms", roomId, from, to, count[0], System.currentTimeMillis() - start);
+            return count[0];
+        } finally {
+            permits.release();
+        }
+    }
+
+    private String query(String table, Long roomId, LocalDateTime from, LocalDateTime to, List<Object> args) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS).append(" FROM ").append(table).append(" WHERE 1 = 1");
+        if (roomId != null) {
+            sql.append(" AND room_id = ?");
+            args.add(roomId);
+        }
+        if (from != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND created_at < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        return sql.append(" ORDER BY id").toString();
+    }
+
+    private interface RowWriter extends Closeable {
+        void row(ResultSet rs, String tier) throws SQLException, IOException;
+    }
+
+    // 한 줄에 메시지 하나 (JSON)
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        private NdjsonRowWriter(JsonFactory factory, OutputStream out) throws IOException {
+            this.generator = factory.createGenerator(out, JsonEncoding.UTF8);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(null); // 객체 사이 구분자는 줄바꿈만
+        }
+
+        @Override
+        public void row(ResultSet rs, String tier) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", rs.getLong("id"));
+            generator.writeNumberField("roomId", rs.getLong("room_id"));
+            generator.writeStringField("sender", rs.getString("sender"));
+            generator.writeStringField("message", rs.getString("message"));
+            generator.writeStringField("type", rs.getString("type"));
+            generator.writeStringField("fileUrl", rs.getString("file_url"));
+            generator.writeStringField("fileName", rs.getString("file_name"));
+            generator.writeStringField("fileType", rs.getString("file_type"));
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            generator.writeStringField("createdAt", createdAt != null ? createdAt.toLocalDateTime().toString() : null);
+            generator.writeStringField("tier", tier);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    // 엑셀에서 한글이 깨지지 않도록 UTF-8 BOM + RFC 4180 따옴표 처리
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        private CsvRowWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            this.writer.write('\uFEFF');
+            this.writer.write(String.join(",", HEADER));
+            this.writer.write("\r\n");
+        }
+
+        @Override
+        public void row(ResultSet rs, String tier) throws SQLException, IOException {
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            writer.write(String.valueOf(rs.getLong("id")));
+            writer.write(',');
+            writer.write(String.valueOf(rs.getLong("room_id")));
+            for (String column : new String[]{"sender", "message", "type", "file_url", "file_name", "file_type"}) {
+                writer.write(',');
+                writeField(rs.getString(column));
+            }
+            writer.write(',');
+            writeField(createdAt != null ? createdAt.toLocalDateTime().toString() : null);
+            writer.write(',');
+            writer.write(tier);
+            writer.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+}
@@ -1,33 +1,51 @@
 package hello.chatting.chat.service;
 
 import hello.chatting.chat.domain.ChatMessage;
+import hello.chatting.chat.dto.AlarmSenderDto;
+import hello.chatting.chat.dto.ChatHistoryReqDto;
+import hello.chatting.chat.dto.ChatMessageDeltaDto;
 import hello.chatting.chat.dto.ChatMessageDto;
+import hello.chatting.chat.dto.ChatResumeDto;
+import hello.chatting.chat.repository.ChatArchiveRepository;
 import hello.chatting.chat.repository.ChatRepository;
 import hello.chatting.chatroom.domain.ChatRoom;
 import hello.chatting.chatroom.domain.ChatRoomMember;
 import hello.chatting.chatroom.domain.RoomType;
+import hello.chatting.chatroom.dto.RoomMembershipDto;
 import hello.chatting.chatroom.repository.ChatRoomMemberRepository;
 import hello.chatting.chatroom.repository.ChatRoomRepository;
+import hello.chatting.chatroom.service.ChatRoomMemberCache;
+import hello.chatting.config.ReadYourWritesGuard;
+import hello.chatting.metrics.ChatMetrics;
+import hello.chatting.search.service.MessageSearchService;
 import hello.chatting.user.domain.User;
 import hello.chatting.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.expression.ExpressionException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -39,12 +57,37 @@ public class ChatService {
     private String uploadDir;
 
     private final ChatRepository chatRepository;
+    private final ChatArchiveRepository chatArchiveRepository;
     private final ChatRoomRepository chatRoomRepository;
     private final ChatRoomMemberRepository chatRoomMemberRepository;
     private final UserRepository userRepository;
+    private final MessageSearchService messageSearchService;
+    private final ChatRoomMemberCache chatRoomMemberCache;
+    private final RecentMessageBuffer recentMessageBuffer;
+    private final MessageDedupWindow messageDedupWindow;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final ChatMetrics chatMetrics;
+    private final MessageEventService messageEventService;
+    private final RoomSequence roomSequence;
+    private final PlatformTransactionManager transactionManager;
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_RESUME_SIZE = 200;
+    private static final int MAX_CACHED_SENDERS = 10_000;
+
+    // 보낸 사람 loginId → 이름 (이름은 가입 때 정해지고 바뀌지 않음 → 저장마다 users 조회하지 않도록)
+    private final Map<String, String> senderNames = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_CACHED_SENDERS;
+        }
+    });
+
+    /**
+     * 메시지 저장 → 저장된 메시지 DTO 반환 (방 순번 seq 포함, 전송은 커밋 후라 순번 순서와 다를 수 있음), 저장 대상이 아니면 null
+     */
     @Transactional
-    public void save(ChatMessage chatMessage) throws Exception {
+    public ChatMessageDto save(ChatMessage chatMessage) throws Exception {
 
         // roomId에 대해서 ROOMTYPE에 조회해서 ROOMTYPE이 PRIVATE가 맞다면 그 떄 조회
         Long roomId = chatMessage.getRoomId();
@@ -60,77 +103,382 @@ public class ChatService {
                 if (!member.getActive()) {
                     member.setActive(true);
                     chatRoomMemberRepository.save(member);
+                    chatRoomMemberCache.evictAfterCommit(List.of(member.getUserId()));
                 }
             }
 
         }
 
         if (StringUtils.hasText(chatMessage.getMessage())) {
+            chatMessage.assignSeq(roomSequence.next(roomId), now());
             chatRepository.save(chatMessage);
+
+            ChatMessageDto saved = toBufferedDto(chatMessage, room.getType());
+            afterCommit(() -> {
+                recentMessageBuffer.append(saved);
+                readYourWritesGuard.markWrite(chatMessage.getSender()); // 커밋 시각부터 다시 (라우팅은 트랜잭션 시작 때 기록)
+                if (StringUtils.hasText(chatMessage.getClientMsgId())) {
+                    messageDedupWindow.remember(chatMessage.getSender(), chatMessage.getClientMsgId(), chatMessage.getId());
+                }
+                messageSearchService.indexMessage(chatMessage);
+            });
+            return saved;
         }
+        return null;
     }
 
-    @Transactional(readOnly = true)
-    public List<ChatMessageDto> getMessageByUserId(ChatMessageDto dto) {
-        List<ChatMessage> messages = chatRepository.findMessagesAfterLeave(dto.getRoomId(), dto.getSender());
+    /**
+     * 메시지/타이핑/파일 전송 권한 확인 (멤버십 캐시 → 프레임마다 DB 조회 없음)
+     * 나간 방: 1:1 방은 보내면 다시 활성화되므로 허용, 단체방은 나가기(LEAVE) 메시지만 허용
+     */
+    public void checkPublish(String userId, Long roomId, String type) throws Exception {
+        RoomMembershipDto membership = chatRoomMemberCache.find(userId, roomId)
+                .orElseThrow(() -> new Exception("참여하지 않은 채팅방입니다."));
+
+        if (!Boolean.TRUE.equals(membership.active())
+                && membership.type() != RoomType.PRIVATE
+                && !"LEAVE".equals(type)) {
+            throw new Exception("나간 채팅방입니다.");
+        }
+    }
+
+    /**
+     * 알림은 같은 방 멤버끼리만
+     */
+    public void checkAlarm(String sender, String receiver, Long roomId) throws Exception {
+        if (chatRoomMemberCache.find(sender, roomId).isEmpty() || chatRoomMemberCache.find(receiver, roomId).isEmpty()) {
+            throw new Exception("참여하지 않은 채팅방입니다.");
+        }
+    }
 
-        return messages.stream()
-                .map(chatMessage -> {
-                    String senderName = userRepository.findByLoginId(chatMessage.getSender())
-                            .map(User::getName)
-                            .orElse(chatMessage.getSender());
+    /**
+     * 알림 보낸 사람 이름/프로필 (클라이언트가 보낸 값은 쓰지 않음)
+     */
+    public AlarmSenderDto findAlarmSender(String loginId) {
+        return userRepository.findByLoginId(loginId)
+                .map(user -> new AlarmSenderDto(user.getName(), user.getProfileImage()))
+                .orElse(new AlarmSenderDto(loginId, null));
+    }
 
-                    return ChatMessageDto.toDto(chatMessage)
-                            .toBuilder()
-                            .senderName(senderName)
-                            .build();
+    /**
+     * 최근 창 안에서 이미 저장된 재전송 메시지면 원래 메시지 id
+     */
+    public Optional<Long> findDuplicate(String sender, String clientMsgId) {
+        if (!StringUtils.hasText(clientMsgId)) {
+            return Optional.empty();
+        }
 
-                })
-                .collect(Collectors.toList());
+        Long id = messageDedupWindow.find(sender, clientMsgId);
+        return Optional.ofNullable(id);
     }
 
+    public Optional<Long> findIdByClientMsgId(String sender, String clientMsgId) {
+        if (!StringUtils.hasText(clientMsgId)) {
+            return Optional.empty();
+        }
+        return chatRepository.findIdByClientMsgId(sender, clientMsgId);
+    }
 
     /**
-     * 채팅용 파일 업로드
+     * 재연결 시 afterSeq 이후 놓친 메시지 + 수정/삭제/반응 (방 순번 순서)
+     * 방 순번과 메시지/이벤트를 한 트랜잭션(같은 스냅샷)에서 읽음 → 순번 개수만큼 다 찾으면 빠짐없이 이어받음
+     * 놓친 순번이 MAX_RESUME_SIZE 보다 많거나 일부가 최근 테이블에 없으면(보관/보존 기간 삭제) 방 다시 불러오기
+     * replica 가 늦으면 lastSeq 가 afterSeq 보다 작을 수 있음 → 빈 응답 (클라이언트가 잠시 후 다시 요청)
      */
-    @Transactional
-    public ChatMessage chatFileUpload(MultipartFile file, Long roomId, String sender) throws Exception {
-        if (file.isEmpty()) {
-            throw new Exception("파일이 없습니다.");
+    public ChatResumeDto getMessagesAfter(ChatHistoryReqDto dto) {
+        Long roomId = dto.getRoomId();
+        Optional<RoomMembershipDto> membership = chatRoomMemberCache.find(dto.getSender(), roomId);
+        if (membership.isEmpty() || dto.getAfterSeq() == null) {
+            return ChatResumeDto.reload(roomId);
         }
 
-        String originalFilename = file.getOriginalFilename();
-        String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        String saveFilename = UUID.randomUUID() + extension;
+        LocalDateTime cutoff = membership.get().activeAt();
+        long afterSeq = dto.getAfterSeq();
+        ChatResumeDto resume = readSnapshot(false, () -> {
+            long lastSeq = roomSequence.current(roomId);
+            if (lastSeq <= afterSeq) {
+                return new ChatResumeDto(roomId, List.of(), List.of(), afterSeq, false);
+            }
+            if (lastSeq - afterSeq > MAX_RESUME_SIZE) {
+                return ChatResumeDto.reload(roomId);
+            }
 
-        Path baseDir = Paths.get(uploadDir);
-        if (!Files.exists(baseDir)) {
-            Files.createDirectories(baseDir);
+            List<ChatMessageDto> messages = chatRepository.findBySeqRange(roomId, afterSeq, lastSeq).stream()
+                    .map(ChatMessageDto::toDto)
+                    .collect(Collectors.toList());
+            List<ChatMessageDeltaDto> deltas = messageEventService.findDeltas(roomId, afterSeq, lastSeq);
+            if (messages.size() + deltas.size() != lastSeq - afterSeq) {
+                return ChatResumeDto.reload(roomId);
+            }
+
+            // activeAt 이전 메시지는 보내지 않음 (그 메시지의 변경은 클라이언트가 화면에 없는 메시지라 건너뜀)
+            messages.removeIf(m -> cutoff != null && !m.getCreatedAt().isAfter(cutoff));
+            return new ChatResumeDto(roomId, messages, deltas, lastSeq, false);
+        });
+
+        if (!resume.reload()) {
+            chatMetrics.recordResume(resume.messages().size());
         }
+        return resume;
+    }
 
-        String today = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        Path uploadDir = baseDir.resolve(today);
-        if (!Files.exists(uploadDir)) {
-            Files.createDirectories(uploadDir);
+    /**
+     * 채팅방 메시지 페이지 조회 (beforeId 커서, 최신 → 과거)
+     * 첫 페이지는 최근 메시지 버퍼에서 바로 응답 → 자주 여는 방은 DB 조회 없음
+     * 첫 페이지는 그 시점 방 순번(seq)도 함께 → 클라이언트는 이 순번 이후 실시간 프레임/재연결만 이어받음
+     * 버퍼 적중 시 트랜잭션/커넥션을 잡지 않도록 메서드에는 트랜잭션을 걸지 않음
+     */
+    public MessagePage getMessagePage(ChatHistoryReqDto dto) {
+        Optional<RoomMembershipDto> membership = chatRoomMemberCache.find(dto.getSender(), dto.getRoomId());
+        if (membership.isEmpty()) {
+            return new MessagePage(List.of(), null);
+        }
+
+        Long roomId = dto.getRoomId();
+        LocalDateTime cutoff = membership.get().activeAt();
+        int size = Math.max(1, Math.min(dto.getSize(), MAX_PAGE_SIZE));
+
+        if (dto.getBeforeId() == null) {
+            Optional<RecentMessageBuffer.Snapshot> cached = recentMessageBuffer.latest(roomId, cutoff, size);
+            if (cached.isEmpty()) {
+                warmRecentMessageBuffer(roomId);
+                cached = recentMessageBuffer.latest(roomId, cutoff, size);
+            }
+            if (cached.isPresent()) {
+                chatMetrics.recordHistoryFromBuffer(cached.get().messages().size());
+                return new MessagePage(cached.get().messages(), cached.get().seq());
+            }
+
+            // 버퍼로 못 채우는 첫 페이지: 방 순번과 같은 스냅샷에서 읽음
+            return readSnapshot(false, () -> {
+                long seq = roomSequence.current(roomId);
+                return new MessagePage(messageEventService.foldSnapshot(findPage(roomId, null, cutoff, size)), seq);
+            });
+        }
+
+        return new MessagePage(messageEventService.fold(findPage(roomId, dto.getBeforeId(), cutoff, size)), null);
+    }
+
+    // 최근 테이블에서 먼저 읽고 모자라면 보관 테이블에서 이어서 읽음 (오래된 순으로 반환)
+    private List<ChatMessageDto> findPage(Long roomId, Long beforeId, LocalDateTime cutoff, int size) {
+        List<ChatMessageDto> page = new ArrayList<>();
+        chatRepository.findPage(roomId, beforeId, cutoff, PageRequest.of(0, size)).stream()
+                .map(ChatMessageDto::toDto)
+                .forEach(page::add);
+
+        if (page.size() < size) {
+            Long archiveBefore = page.isEmpty() ? beforeId : page.get(page.size() - 1).getId();
+            chatArchiveRepository.findPage(roomId, archiveBefore, cutoff, PageRequest.of(0, size - page.size())).stream()
+                    .map(ChatMessageDto::toDto)
+                    .forEach(page::add);
+        }
+
+        Collections.reverse(page);
+        chatMetrics.recordHistoryFromDb(page.size());
+        return page;
+    }
+
+    /**
+     * 메시지 페이지
+     * @param seq 첫 페이지가 반영하고 있는 마지막 방 순번 (이전 페이지는 null)
+     */
+    public record MessagePage(List<ChatMessageDto> messages, Long seq) {
+    }
+
+    @Transactional(readOnly = true)
+    public List<ChatMessageDto> getMessageByUserId(ChatHistoryReqDto dto) {
+        // 보관(cold) 메시지가 항상 더 오래된 메시지 → 보관 + 최근 순으로 이어 붙임
+        List<ChatMessageDto> history = new ArrayList<>();
+        chatArchiveRepository.findMessagesAfterLeave(dto.getRoomId(), dto.getSender()).stream()
+                .map(ChatMessageDto::toDto)
+                .forEach(history::add);
+        chatRepository.findMessagesAfterLeave(dto.getRoomId(), dto.getSender()).stream()
+                .map(ChatMessageDto::toDto)
+                .forEach(history::add);
+        chatMetrics.recordFullHistory(history.size());
+
+        return messageEventService.fold(history);
+    }
+
+
+    /**
+     * 채팅용 파일을 업로드 경로에 저장 (ChatUploadService 의 upload 스레드에서 호출, 메시지 저장은 saveChatFile)
+     */
+    public StoredFile storeChatFile(MultipartFile file) throws Exception {
+        if (file == null || file.isEmpty()) {
+            throw new Exception("파일이 없습니다.");
         }
 
-        Path filePath = uploadDir.resolve(saveFilename);
+        String originalFilename = file.getOriginalFilename();
+        String today = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+        String saveFilename = UUID.randomUUID() + extension(originalFilename);
+        Path filePath = uploadDirectory(today).resolve(saveFilename);
+
+        long start = System.nanoTime();
         Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        chatMetrics.recordUpload(file.getSize(), System.nanoTime() - start);
 
         // 클라이언트 접근용 URL 생성 WebMvcConfigurer에서 /files/** → uploadPath 매핑 필요
-        String fileUrl = "/files/" + today + "/" + saveFilename;
+        return new StoredFile(filePath, "/files/" + today + "/" + saveFilename, originalFilename, file.getContentType());
+    }
+
+    /**
+     * 분할 업로드로 다 받은 파일을 업로드 경로로 옮김 (ChunkedUploadService, 메시지 저장은 saveChatFile)
+     */
+    public StoredFile moveChatFile(Path assembled, String originalFilename, String contentType) throws Exception {
+        String today = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+        String saveFilename = UUID.randomUUID() + extension(originalFilename);
+        Path filePath = uploadDirectory(today).resolve(saveFilename);
+
+        moveFile(assembled, filePath);
+        return new StoredFile(filePath, "/files/" + today + "/" + saveFilename, originalFilename, contentType);
+    }
+
+    static void moveFile(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
 
+    /**
+     * 업로드 경로에 저장된 파일로 FILE 메시지 저장 → 저장된 메시지 DTO
+     * 저장(커밋)이 실패하면 파일은 호출한 쪽에서 정리
+     */
+    @Transactional
+    public ChatMessageDto saveChatFile(StoredFile file, Long roomId, String sender) {
         ChatMessage chatMessage = ChatMessage.builder()
                 .roomId(roomId)
                 .sender(sender)
                 .type("FILE")
-                .fileUrl(fileUrl)
-                .fileName(originalFilename)
-                .fileType(file.getContentType())
+                .fileUrl(file.fileUrl())
+                .fileName(file.fileName())
+                .fileType(file.fileType())
+                .seq(roomSequence.next(roomId))
+                .createdAt(now())
                 .build();
 
         chatRepository.save(chatMessage);
 
-        return chatMessage;
+        ChatMessageDto saved = toBufferedDto(chatMessage, null);
+        afterCommit(() -> recentMessageBuffer.append(saved));
+
+        return saved;
+    }
+
+    // 메시지를 저장하지 않은(시간 초과/실패) 파일 삭제
+    public void deleteChatFile(StoredFile file) {
+        try {
+            Files.deleteIfExists(file.path());
+        } catch (IOException e) {
+            log.warn("업로드 파일 삭제 실패: {}", file.path(), e);
+        }
+    }
+
+    /**
+     * 업로드 경로에 저장된 파일
+     * @param fileUrl 클라이언트 접근용 URL (/files/{날짜}/{저장 이름})
+     */
+    public record StoredFile(Path path, String fileUrl, String fileName, String fileType) {
+    }
+
+    // 업로드 경로/날짜 폴더
+    private Path uploadDirectory(String today) throws IOException {
+        Path uploadDir = Paths.get(this.uploadDir).resolve(today);
+        if (!Files.exists(uploadDir)) {
+            Files.createDirectories(uploadDir);
+        }
+        return uploadDir;
+    }
+
+    private String extension(String filename) {
+        if (filename == null || filename.lastIndexOf(".") < 0) {
+            return "";
+        }
+        return filename.substring(filename.lastIndexOf("."));
+    }
+
+    /**
+     * 방의 최근 메시지로 버퍼 채우기 (방 순번과 같은 스냅샷)
+     * prepare 이전에 커밋되어 버퍼가 받지 못한 순번이 빠지지 않도록 primary 에서 읽음 (replica 는 순번이 늦을 수 있음)
+     */
+    private void warmRecentMessageBuffer(Long roomId) {
+        recentMessageBuffer.prepare(roomId);
+
+        int capacity = recentMessageBuffer.capacity();
+        try {
+            readSnapshot(true, () -> {
+                long seq = roomSequence.current(roomId);
+                List<ChatMessageDto> latest = new ArrayList<>();
+                chatRepository.findLatestByRoomId(roomId, PageRequest.of(0, capacity)).stream()
+                        .map(ChatMessageDto::toDto)
+                        .forEach(latest::add);
+                Collections.reverse(latest);
+
+                boolean wholeHistory = latest.size() < capacity && !chatArchiveRepository.existsByRoomId(roomId);
+                recentMessageBuffer.seed(roomId, messageEventService.foldSnapshot(latest), wholeHistory, seq);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            recentMessageBuffer.evict(roomId); // 채우지 못한 자리에 변경만 쌓이지 않도록
+            throw e;
+        }
+    }
+
+    /**
+     * 방 순번과 메시지/이벤트를 한 트랜잭션(같은 스냅샷)에서 읽음
+     * @param primary true 면 읽기 전용으로 표시하지 않음 → replica 로 보내지 않음
+     */
+    private <T> T readSnapshot(boolean primary, Supplier<T> read) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(!primary);
+        return template.execute(status -> read.get());
+    }
+
+    // 메시지 저장 시각 (chat_room_member.active_at 과 같은 애플리케이션 시계, DATETIME(6) 정밀도)
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    // 버퍼에 넣을 DTO
+    private ChatMessageDto toBufferedDto(ChatMessage chatMessage, RoomType roomType) {
+        return ChatMessageDto.toDto(chatMessage).toBuilder()
+                .senderName(senderName(chatMessage.getSender()))
+                .roomType(roomType)
+                .build();
+    }
+
+    // 없는 유저는 loginId 로 표시하고 캐시하지 않음
+    private String senderName(String loginId) {
+        String name = senderNames.get(loginId);
+        if (name != null) {
+            return name;
+        }
+
+        return userRepository.findByLoginId(loginId)
+                .map(User::getName)
+                .map(n -> {
+                    senderNames.put(loginId, n);
+                    return n;
+                })
+                .orElse(loginId);
+    }
+
+    /**
+     * 트랜잭션 커밋 이후 실행 (롤백된 메시지가 인덱스/캐시에 들어가지 않도록)
+     */
+    private void afterCommit(Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            task.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                task.run();
+            }
+        });
     }
 }
@@ -0,0 +1,154 @@
+package hello.chatting.chat.service;
+
+import hello.chatting.chat.dto.ChatMessageDto;
+import hello.chatting.exception.dto.ExceptionResponseDTO;
+import hello.chatting.websocket.RoomDispatcher;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 채팅 파일 업로드를 Tomcat 작업 스레드가 아닌 전용 스레드풀에서 처리
+ * - 요청 본문(multipart) 읽기, 디스크 저장, DB 저장을 모두 upload 스레드에서 → 느린 업로드가 /chat/messages 등 다른 요청을 막지 않음
+ *   (spring.servlet.multipart.resolve-lazily=true 라서 파일을 꺼낼 때 본문을 읽음)
+ * - 스레드/큐가 꽉 차면 바로 503 → 클라이언트가 잠시 후 재시도
+ * - 시간 초과로 응답한 뒤에는 메시지를 저장/전송하지 않음 (실패로 알린 파일이 방에 올라가지 않도록)
+ * - 저장이 끝나면 방 구독자에게 FILE 메시지 전송
+ * - 분할 업로드의 조각 쓰기/완료(fsync, 이동, DB 저장)도 submit 으로 같은 풀에서 처리
+ */
+@Slf4j
+@Service
+public class ChatUploadService {
+
+    static final String TIMEOUT_MESSAGE = "업로드 시간이 초과되었습니다. 다시 시도해주세요.";
+    private static final long COMMIT_WAIT_SECONDS = 30;
+
+    @Value("${chat.upload.timeout-ms:300000}")
+    private long timeoutMs;
+
+    private final ChatService chatService;
+    private final RoomDispatcher roomDispatcher;
+    private final ThreadPoolTaskExecutor executor;
+
+    public ChatUploadService(ChatService chatService,
+                             RoomDispatcher roomDispatcher,
+                             @Value("${chat.upload.threads:4}") int threads,
+                             @Value("${chat.upload.queue-capacity:20}") int queueCapacity) {
+        this.chatService = chatService;
+        this.roomDispatcher = roomDispatcher;
+
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(threads);
+        this.executor.setMaxPoolSize(threads);
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadNamePrefix("chat-upload-");
+        this.executor.setWaitForTasksToCompleteOnShutdown(true);
+        this.executor.setAwaitTerminationSeconds(30);
+        this.executor.initialize();
+    }
+
+    /**
+     * @param file upload 스레드에서 호출 → 이때 요청 본문을 읽음
+     */
+    public WebAsyncTask<ResponseEntity<?>> upload(Long roomId, String sender, Callable<MultipartFile> file) {
+        return submit(attempt -> {
+            ChatService.StoredFile stored = chatService.storeChatFile(file.call());
+            if (!attempt.commit()) {
+                chatService.deleteChatFile(stored);
+                throw new Exception(TIMEOUT_MESSAGE);
+            }
+
+            ChatMessageDto saved;
+            try {
+                saved = chatService.saveChatFile(stored, roomId, sender);
+            } catch (Exception e) {
+                chatService.deleteChatFile(stored);
+                throw e;
+            }
+            roomDispatcher.publish(roomId, saved.getSeq(), saved, null);
+            return ResponseEntity.ok(saved);
+        }, "파일 업로드 실패 roomId=" + roomId + ", sender=" + sender);
+    }
+
+    /**
+     * 업로드 관련 작업(분할 업로드 조각 쓰기/완료 등)을 upload 스레드에서 실행
+     * WebAsyncTask → 비동기 처리를 시작한 뒤에 풀에 넣으므로 요청 본문은 항상 비동기 상태에서 읽음
+     * 풀이 꽉 차면 TaskRejectedException → CustomExceptionHandler 에서 503
+     */
+    public WebAsyncTask<ResponseEntity<?>> submit(UploadTask task, String description) {
+        UploadAttempt attempt = new UploadAttempt();
+
+        WebAsyncTask<ResponseEntity<?>> asyncTask = new WebAsyncTask<>(timeoutMs, executor, () -> {
+            try {
+                ResponseEntity<?> response = task.run(attempt);
+                attempt.result.complete(response);
+                return response;
+            } catch (Exception e) {
+                log.warn("{}: {}", description, e.getMessage());
+                attempt.result.completeExceptionally(e);
+                throw e;
+            }
+        });
+
+        asyncTask.onTimeout(() -> {
+            if (attempt.timeout()) {
+                log.warn("{}: 시간 초과", description);
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body(new ExceptionResponseDTO<>(-1, TIMEOUT_MESSAGE, null));
+            }
+
+            // 이미 메시지 저장을 시작함 → 그 결과로 응답 (저장됐는데 실패로 알려 재업로드 → 중복 메시지가 되지 않도록)
+            try {
+                return attempt.result.get(COMMIT_WAIT_SECONDS, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        });
+        return asyncTask;
+    }
+
+    @FunctionalInterface
+    public interface UploadTask {
+        ResponseEntity<?> run(UploadAttempt attempt) throws Exception;
+    }
+
+    /**
+     * 업로드 한 건의 진행 상태: 메시지 저장 시작(commit)과 시간 초과 중 먼저 온 쪽만 성공
+     */
+    public static final class UploadAttempt {
+        private static final int RUNNING = 0;
+        private static final int COMMITTING = 1;
+        private static final int TIMED_OUT = 2;
+
+        private final AtomicInteger state = new AtomicInteger(RUNNING);
+        private final CompletableFuture<ResponseEntity<?>> result = new CompletableFuture<>();
+
+        /**
+         * DB 저장/전송 직전에 호출 → false 면 이미 시간 초과로 응답함 (저장하지 말고 정리)
+         */
+        public boolean commit() {
+            return state.compareAndSet(RUNNING, COMMITTING);
+        }
+
+        private boolean timeout() {
+            return state.compareAndSet(RUNNING, TIMED_OUT);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
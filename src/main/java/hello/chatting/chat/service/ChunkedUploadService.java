@@ -0,0 +1,369 @@
+package hello.chatting.chat.service;
+
+import hello.chatting.chat.dto.ChatMessageDto;
+import hello.chatting.chat.dto.ChunkUploadResultDto;
+import hello.chatting.chat.dto.ChunkedUploadInitReqDto;
+import hello.chatting.chat.dto.ChunkedUploadStatusDto;
+import hello.chatting.websocket.RoomDispatcher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 분할(재개 가능) 파일 업로드: 시작 → 조각 업로드(순서 무관, 재시도 가능) → 완료
+ * - 시작할 때 전체 크기만큼 임시 파일을 만들어 두고, 조각은 FileChannel 위치 지정 쓰기로 제자리에 기록
+ *   → 조각을 메모리에 모으거나 마지막에 이어 붙이지 않음
+ * - 조각마다 SHA-256 을 계산해서 돌려주고, 클라이언트가 보낸 값(X-Chunk-Sha256)과 다르면 거부
+ * - 받은 조각은 BitSet 으로 관리 → 끊긴 뒤 상태 조회로 남은 조각만 이어서 올림
+ *   쓰는 동안에는 받은 표시를 지우고 크기/체크섬까지 통과해야 다시 표시 (같은 조각 재전송이 실패하면 그 조각은 다시 받아야 함)
+ * - 조각 업로드/완료 처리는 ChatUploadService 의 upload 스레드에서 호출
+ * - 진행 상태는 메모리에만 있음 (서버 재시작 시 처음부터), idle-minutes 동안 움직임이 없으면 임시 파일과 함께 삭제
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChunkedUploadService {
+
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+    private static final int MIN_CHUNK_SIZE = 64 * 1024;
+
+    @Value("${chat.upload.chunked.temp-path:./uploads-tmp}")
+    private String tempPath;
+
+    @Value("${chat.upload.chunked.max-file-size:1073741824}")
+    private long maxFileSize;
+
+    @Value("${chat.upload.chunked.default-chunk-size:1048576}")
+    private int defaultChunkSize;
+
+    @Value("${chat.upload.chunked.max-chunk-size:8388608}")
+    private int maxChunkSize;
+
+    @Value("${chat.upload.chunked.max-sessions-per-user:5}")
+    private int maxSessionsPerUser;
+
+    @Value("${chat.upload.chunked.idle-minutes:30}")
+    private long idleMinutes;
+
+    private final ChatService chatService;
+    private final RoomDispatcher roomDispatcher;
+
+    private final ConcurrentHashMap<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * 업로드 시작 → uploadId 와 조각 크기/개수
+     */
+    public ChunkedUploadStatusDto init(String sender, Long roomId, ChunkedUploadInitReqDto dto) throws Exception {
+        if (!StringUtils.hasText(dto.getFileName())) {
+            throw new Exception("파일 이름이 없습니다.");
+        }
+        if (dto.getSize() == null || dto.getSize() <= 0) {
+            throw new Exception("파일이 없습니다.");
+        }
+        if (dto.getSize() > maxFileSize) {
+            throw new Exception("업로드 가능한 파일 크기를 초과했습니다. (최대 " + maxFileSize / (1024 * 1024) + "MB)");
+        }
+
+        long active = sessions.values().stream().filter(s -> s.sender.equals(sender)).count();
+        if (active >= maxSessionsPerUser) {
+            throw new Exception("진행 중인 업로드가 너무 많습니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        int chunkSize = dto.getChunkSize() != null
+                ? Math.max(MIN_CHUNK_SIZE, Math.min(dto.getChunkSize(), maxChunkSize))
+                : defaultChunkSize;
+        int totalChunks = (int) ((dto.getSize() + chunkSize - 1) / chunkSize);
+
+        String uploadId = UUID.randomUUID().toString();
+        Path path = tempDirectory().resolve(uploadId + ".part");
+
+        // 전체 크기만큼 미리 잡아둠 (sparse) → 조각은 제자리에 씀
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(dto.getSize());
+        }
+
+        UploadSession session = new UploadSession(uploadId, sender, roomId, dto.getFileName(), dto.getFileType(),
+                dto.getSize(), chunkSize, totalChunks, path);
+        sessions.put(uploadId, session);
+        return session.status();
+    }
+
+    public ChunkedUploadStatusDto status(String sender, String uploadId) throws Exception {
+        return find(sender, uploadId).status();
+    }
+
+    /**
+     * 조각 저장: 요청 본문을 64KB 씩 읽어 해당 위치에 바로 기록 (조각 전체를 메모리에 두지 않음)
+     */
+    public ChunkUploadResultDto writeChunk(String sender, String uploadId, int index, String expectedSha256,
+                                           InputStream body) throws Exception {
+        UploadSession session = find(sender, uploadId);
+        if (index < 0 || index >= session.totalChunks) {
+            throw new Exception("잘못된 조각 번호입니다.");
+        }
+
+        long position = (long) index * session.chunkSize;
+        long length = Math.min(session.chunkSize, session.size - position);
+
+        if (!session.beginWrite(index)) {
+            throw new Exception("같은 조각을 업로드하는 중입니다.");
+        }
+
+        boolean verified = false;
+        try {
+            String sha256 = write(session.path, position, length, expectedSha256, body);
+            verified = true;
+            int received = session.endWrite(index, true);
+            return new ChunkUploadResultDto(index, sha256, received, session.totalChunks);
+        } finally {
+            if (!verified) {
+                session.endWrite(index, false);
+            }
+        }
+    }
+
+    /**
+     * body 를 position 부터 length 만큼 기록하고 SHA-256 (hex) 반환
+     * 크기가 다르거나 expectedSha256 과 다르면 예외 (이미 쓴 영역은 호출한 쪽에서 받지 않은 조각으로 처리)
+     */
+    static String write(Path path, long position, long length, String expectedSha256, InputStream body) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] buffer = new byte[IO_BUFFER_SIZE];
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            int read;
+            // 조각 크기보다 1바이트 더 읽어서 넘치는지 확인
+            while ((read = body.read(buffer, 0, (int) Math.min(buffer.length, length - written + 1))) != -1) {
+                if (written + read > length) {
+                    throw new Exception("조각 크기가 맞지 않습니다.");
+                }
+                digest.update(buffer, 0, read);
+
+                ByteBuffer data = ByteBuffer.wrap(buffer, 0, read);
+                long target = position + written;
+                while (data.hasRemaining()) {
+                    target += channel.write(data, target);
+                }
+                written += read;
+            }
+        }
+
+        if (written != length) {
+            throw new Exception("조각 크기가 맞지 않습니다.");
+        }
+
+        String sha256 = HexFormat.of().formatHex(digest.digest());
+        if (StringUtils.hasText(expectedSha256) && !sha256.equalsIgnoreCase(expectedSha256.trim())) {
+            throw new Exception("조각 체크섬이 맞지 않습니다. 다시 업로드해주세요.");
+        }
+        return sha256;
+    }
+
+    /**
+     * 모든 조각을 받았으면 업로드 경로로 옮기고 FILE 메시지 저장 → 방에 전송
+     * 메시지 저장(커밋)이 실패하면 파일을 임시 경로로 되돌림 → 같은 uploadId 로 완료를 다시 요청할 수 있음
+     * @param attempt 시간 초과로 이미 응답했으면 옮기거나 저장하지 않음
+     */
+    public ChatMessageDto complete(String sender, String uploadId, ChatUploadService.UploadAttempt attempt) throws Exception {
+        UploadSession session = find(sender, uploadId);
+        chatService.checkPublish(sender, session.roomId, "FILE");
+
+        if (!session.beginComplete()) {
+            throw new Exception("아직 받지 못한 조각이 있습니다.");
+        }
+
+        try {
+            try (FileChannel channel = FileChannel.open(session.path, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+
+            if (!attempt.commit()) {
+                throw new Exception(ChatUploadService.TIMEOUT_MESSAGE);
+            }
+
+            ChatService.StoredFile stored = chatService.moveChatFile(session.path, session.fileName, session.fileType);
+            ChatMessageDto saved;
+            try {
+                saved = chatService.saveChatFile(stored, session.roomId, sender);
+            } catch (Exception e) {
+                restore(stored.path(), session.path);
+                throw e;
+            }
+
+            sessions.remove(uploadId);
+            roomDispatcher.publish(session.roomId, saved.getSeq(), saved, null);
+            return saved;
+        } catch (Exception e) {
+            session.abortComplete();
+            throw e;
+        }
+    }
+
+    public void cancel(String sender, String uploadId) throws Exception {
+        UploadSession session = find(sender, uploadId);
+        sessions.remove(uploadId);
+        Files.deleteIfExists(session.path);
+    }
+
+    /**
+     * 오래 멈춘 업로드와 (재시작 등으로) 주인 없는 임시 파일 정리
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdle() {
+        long idleBefore = System.currentTimeMillis() - idleMinutes * 60_000;
+
+        sessions.values().removeIf(session -> {
+            if (session.lastAccess >= idleBefore || session.completing) {
+                return false;
+            }
+            deleteQuietly(session.path);
+            log.info("분할 업로드 만료: {} ({}/{})", session.uploadId, session.receivedCount(), session.totalChunks);
+            return true;
+        });
+
+        Path dir = Paths.get(tempPath);
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (DirectoryStream<Path> parts = Files.newDirectoryStream(dir, "*.part")) {
+            for (Path part : parts) {
+                String uploadId = part.getFileName().toString().replace(".part", "");
+                if (!sessions.containsKey(uploadId) && Files.getLastModifiedTime(part).toMillis() < idleBefore) {
+                    deleteQuietly(part);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("분할 업로드 임시 파일 정리 실패", e);
+        }
+    }
+
+    private UploadSession find(String sender, String uploadId) throws Exception {
+        UploadSession session = uploadId != null ? sessions.get(uploadId) : null;
+        if (session == null || !session.sender.equals(sender)) {
+            throw new Exception("업로드 정보를 찾을 수 없습니다. 처음부터 다시 업로드해주세요.");
+        }
+        if (session.completing) {
+            throw new Exception("이미 완료 처리 중인 업로드입니다.");
+        }
+        session.touch();
+        return session;
+    }
+
+    private Path tempDirectory() throws IOException {
+        Path dir = Paths.get(tempPath);
+        if (!Files.exists(dir)) {
+            Files.createDirectories(dir);
+        }
+        return dir;
+    }
+
+    // 저장하지 못한 파일을 임시 경로로 되돌림 (실패하면 다시 완료할 수 없음 → 처음부터 업로드)
+    private void restore(Path stored, Path part) {
+        try {
+            ChatService.moveFile(stored, part);
+        } catch (IOException e) {
+            log.error("분할 업로드 파일 되돌리기 실패: {} → {}", stored, part, e);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("임시 파일 삭제 실패: {}", path, e);
+        }
+    }
+
+    private static final class UploadSession {
+        private final String uploadId;
+        private final String sender;
+        private final Long roomId;
+        private final String fileName;
+        private final String fileType;
+        private final long size;
+        private final int chunkSize;
+        private final int totalChunks;
+        private final Path path;
+        private final BitSet received;
+        private final BitSet writing;
+        private volatile boolean completing;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private UploadSession(String uploadId, String sender, Long roomId, String fileName, String fileType,
+                              long size, int chunkSize, int totalChunks, Path path) {
+            this.uploadId = uploadId;
+            this.sender = sender;
+            this.roomId = roomId;
+            this.fileName = fileName;
+            this.fileType = fileType;
+            this.size = size;
+            this.chunkSize = chunkSize;
+            this.totalChunks = totalChunks;
+            this.path = path;
+            this.received = new BitSet(totalChunks);
+            this.writing = new BitSet(totalChunks);
+        }
+
+        private void touch() {
+            lastAccess = System.currentTimeMillis();
+        }
+
+        // 쓰기 시작 → 받은 표시를 지움 (같은 조각을 동시에 쓰는 요청은 거부)
+        private synchronized boolean beginWrite(int index) {
+            if (completing || writing.get(index)) {
+                return false;
+            }
+            writing.set(index);
+            received.clear(index);
+            return true;
+        }
+
+        // 크기/체크섬까지 통과한 경우에만 받은 조각으로 표시
+        private synchronized int endWrite(int index, boolean verified) {
+            writing.clear(index);
+            if (verified) {
+                received.set(index);
+            }
+            return received.cardinality();
+        }
+
+        private synchronized int receivedCount() {
+            return received.cardinality();
+        }
+
+        // 모든 조각을 받은 경우에만 완료 처리 시작 (이후 조각 업로드는 거부)
+        private synchronized boolean beginComplete() {
+            if (completing || !writing.isEmpty() || received.cardinality() != totalChunks) {
+                return false;
+            }
+            completing = true;
+            return true;
+        }
+
+        private synchronized void abortComplete() {
+            completing = false;
+        }
+
+        private synchronized ChunkedUploadStatusDto status() {
+            return new ChunkedUploadStatusDto(uploadId, roomId, fileName, size, chunkSize, totalChunks,
+                    received.stream().boxed().toList());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package hello.chatting.chat.service;
+
+import hello.chatting.chat.repository.ChatArchiveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MessageArchiveService {
+
+    private final ChatArchiveRepository chatArchiveRepository;
+
+    /**
+     * cutoff 이전 메시지를 batchSize 만큼 chat_message → chat_message_archive 로 이동
+     * 복사/삭제를 한 트랜잭션으로 묶어 중간 실패 시 양쪽 모두 롤백
+     */
+    @Transactional
+    public int archiveBatch(LocalDateTime cutoff, int batchSize) {
+        List<Long> ids = chatArchiveRepository.findArchiveTargetIds(cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        chatArchiveRepository.copyFromHot(ids);
+        chatArchiveRepository.deleteFromHot(ids);
+        return ids.size();
+    }
+}
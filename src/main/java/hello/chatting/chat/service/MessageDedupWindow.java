@@ -0,0 +1,73 @@
+package hello.chatting.chat.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 보낸 사람별 최근 clientMsgId → 저장된 메시지 id (재전송 중복 제거용)
+ * 보낸 사람마다 최대 max-per-sender 건, ttl 지나면 만료
+ * 창을 벗어난 재전송은 DB 유니크 키 (sender, client_msg_id) 로 걸러짐
+ */
+@Component
+public class MessageDedupWindow {
+
+    @Value("${chat.dedup.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${chat.dedup.max-per-sender:256}")
+    private int maxPerSender;
+
+    private final ConcurrentHashMap<String, SenderWindow> windows = new ConcurrentHashMap<>();
+
+    public Long find(String sender, String clientMsgId) {
+        SenderWindow window = windows.get(sender);
+        return window != null ? window.find(clientMsgId) : null;
+    }
+
+    public void remember(String sender, String clientMsgId, Long messageId) {
+        windows.computeIfAbsent(sender, s -> new SenderWindow(maxPerSender))
+                .put(clientMsgId, messageId, System.currentTimeMillis() + ttlSeconds * 1000);
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void sweep() {
+        windows.entrySet().removeIf(e -> e.getValue().expire());
+    }
+
+    private static final class SenderWindow {
+        private final Map<String, long[]> entries; // clientMsgId → [messageId, expiresAt]
+
+        private SenderWindow(int max) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, long[]> eldest) {
+                    return size() > max;
+                }
+            };
+        }
+
+        private synchronized Long find(String clientMsgId) {
+            long[] entry = entries.get(clientMsgId);
+            if (entry == null || entry[1] < System.currentTimeMillis()) {
+                return null;
+            }
+            return entry[0];
+        }
+
+        private synchronized void put(String clientMsgId, Long messageId, long expiresAt) {
+            entries.put(clientMsgId, new long[]{messageId, expiresAt});
+        }
+
+        // 만료된 항목 제거, 비었으면 true
+        private synchronized boolean expire() {
+            long now = System.currentTimeMillis();
+            entries.values().removeIf(entry -> entry[1] < now);
+            return entries.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package hello.chatting.chat.service;
+
+import hello.chatting.chat.domain.ChatMessage;
+import hello.chatting.chat.domain.ChatMessageEvent;
+import hello.chatting.chat.dto.ChatMessageDeltaDto;
+import hello.chatting.chat.dto.ChatMessageDto;
+import hello.chatting.chat.dto.ChatMessageEventReqDto;
+import hello.chatting.chat.repository.ChatArchiveRepository;
+import hello.chatting.chat.repository.ChatMessageEventRepository;
+import hello.chatting.chat.repository.ChatRepository;
+import hello.chatting.search.service.MessageSearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 메시지 수정/삭제/반응
+ * - 원본 메시지는 그대로 두고 이벤트 행만 추가 → 이력 조회 시 fold 로 합쳐서 보여줌
+ * - 방 구독자에게는 메시지 전체가 아닌 작은 delta 프레임만 전송 (ChatMessageDeltaDto)
+ * - 변경마다 메시지와 같은 방 순번(RoomSequence)을 받음 → 재연결 시 순번 이후 변경분을 순서대로 다시 보냄 (findDeltas)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MessageEventService {
+
+    public static final String REACTION = ChatMessageEvent.REACTION;
+
+    private static final int MAX_MESSAGE_LENGTH = 255;
+    private static final int MAX_EMOJI_LENGTH = 16;
+
+    private final ChatRepository chatRepository;
+    private final ChatArchiveRepository chatArchiveRepository;
+    private final ChatMessageEventRepository chatMessageEventRepository;
+    private final ReactionCounter reactionCounter;
+    private final RecentMessageBuffer recentMessageBuffer;
+    private final MessageSearchService messageSearchService;
+    private final RoomSequence roomSequence;
+
+    /**
+     * 메시지 수정 (본인 TALK 메시지만)
+     */
+    @Transactional
+    public ChatMessageDeltaDto edit(String actor, ChatMessageEventReqDto dto) throws Exception {
+        String content = dto.getMessage() != null ? dto.getMessage().trim() : null;
+        if (!StringUtils.hasText(content)) {
+            throw new Exception("수정할 내용을 입력해주세요.");
+        }
+        if (content.length() > MAX_MESSAGE_LENGTH) {
+            throw new Exception("메시지는 " + MAX_MESSAGE_LENGTH + "자까지 입력할 수 있습니다.");
+        }
+
+        Target target = findTarget(dto);
+        if (!actor.equals(target.sender())) {
+            throw new Exception("본인 메시지만 수정할 수 있습니다.");
+        }
+        if (target.type() != null && !"TALK".equals(target.type())) {
+            throw new Exception("수정할 수 없는 메시지입니다.");
+        }
+        checkNotDeleted(target.id());
+
+        long seq = roomSequence.next(target.roomId());
+        chatMessageEventRepository.save(ChatMessageEvent.builder()
+                .messageId(target.id())
+                .roomId(target.roomId())
+                .actor(actor)
+                .type(ChatMessageEvent.EDIT)
+                .content(content)
+                .seq(seq)
+                .build());
+
+        afterCommit(() -> {
+            recentMessageBuffer.update(target.roomId(), seq, target.id(), m -> m.toBuilder().message(content).edited(true).build());
+            messageSearchService.indexMessage(ChatMessage.builder()
+                    .id(target.id())
+                    .roomId(target.roomId())
+                    .sender(target.sender())
+                    .type("TALK")
+                    .message(content)
+                    .createdAt(target.createdAt())
+                    .build());
+        });
+        return new ChatMessageDeltaDto(ChatMessageEvent.EDIT, target.roomId(), target.id(), seq, actor, content, null, 0);
+    }
+
+    /**
+     * 메시지 삭제 (본인 메시지만, 본문/파일 정보는 숨기고 자리만 남김)
+     */
+    @Transactional
+    public ChatMessageDeltaDto delete(String actor, ChatMessageEventReqDto dto) throws Exception {
+        Target target = findTarget(dto);
+        if (!actor.equals(target.sender())) {
+            throw new Exception("본인 메시지만 삭제할 수 있습니다.");
+        }
+        if ("LEAVE".equals(target.type()) || "INVITE".equals(target.type())) {
+            throw new Exception("삭제할 수 없는 메시지입니다.");
+        }
+        checkNotDeleted(target.id());
+
+        long seq = roomSequence.next(target.roomId());
+        chatMessageEventRepository.save(ChatMessageEvent.builder()
+                .messageId(target.id())
+                .roomId(target.roomId())
+                .actor(actor)
+                .type(ChatMessageEvent.DELETE)
+                .seq(seq)
+                .build());
+
+        afterCommit(() -> {
+            recentMessageBuffer.update(target.roomId(), seq, target.id(), MessageEventService::tombstone);
+            messageSearchService.removeMessage(target.id());
+        });
+        return new ChatMessageDeltaDto(ChatMessageEvent.DELETE, target.roomId(), target.id(), seq, actor, null, null, 0);
+    }
+
+    /**
+     * 반응 누르기/취소 (같은 이모지를 다시 누르면 취소)
+     * 집계는 ReactionCounter 가 모아서 반영, 변경이 없으면(동시에 두 번 누른 경우) null
+     */
+    @Transactional
+    public ChatMessageDeltaDto react(String actor, ChatMessageEventReqDto dto) throws Exception {
+        String emoji = dto.getEmoji();
+        if (!StringUtils.hasText(emoji) || emoji.length() > MAX_EMOJI_LENGTH) {
+            throw new Exception("반응을 선택해주세요.");
+        }
+
+        Target target = findTarget(dto);
+        checkNotDeleted(target.id());
+
+        int delta;
+        if (chatMessageEventRepository.deleteReaction(target.id(), actor, emoji) > 0) {
+            delta = -1;
+        } else if (chatMessageEventRepository.insertReaction(target.id(), actor, emoji) > 0) {
+            delta = 1;
+        } else {
+            return null;
+        }
+
+        long seq = roomSequence.next(target.roomId());
+        chatMessageEventRepository.save(ChatMessageEvent.builder()
+                .messageId(target.id())
+                .roomId(target.roomId())
+                .actor(actor)
+                .type(delta > 0 ? ChatMessageEvent.REACTION : ChatMessageEvent.UNREACTION)
+                .content(emoji)
+                .seq(seq)
+                .build());
+
+        afterCommit(() -> {
+            recentMessageBuffer.update(target.roomId(), seq, target.id(), m -> withReaction(m, emoji, delta));
+            reactionCounter.add(target.id(), emoji, delta);
+        });
+        return new ChatMessageDeltaDto(REACTION, target.roomId(), target.id(), seq, actor, null, emoji, delta);
+    }
+
+    /**
+     * 재연결 시 afterSeq 초과 ~ lastSeq 이하 방 순번의 수정/삭제/반응 (순번 오름차순, 하나씩 그대로)
+     * 같은 트랜잭션에서 읽은 메시지(원본)에 순서대로 반영하면 lastSeq 시점 상태가 됨
+     */
+    public List<ChatMessageDeltaDto> findDeltas(Long roomId, long afterSeq, long lastSeq) {
+        return chatMessageEventRepository.findBySeqRange(roomId, afterSeq, lastSeq).stream()
+                .map(e -> switch (e.getType()) {
+                    case ChatMessageEvent.REACTION -> new ChatMessageDeltaDto(REACTION, roomId, e.getMessageId(), e.getSeq(), e.getActor(), null, e.getContent(), 1);
+                    case ChatMessageEvent.UNREACTION -> new ChatMessageDeltaDto(REACTION, roomId, e.getMessageId(), e.getSeq(), e.getActor(), null, e.getContent(), -1);
+                    default -> new ChatMessageDeltaDto(e.getType(), roomId, e.getMessageId(), e.getSeq(), e.getActor(),
+                            ChatMessageEvent.EDIT.equals(e.getType()) ? e.getContent() : null, null, 0);
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * DB 에서 읽은 메시지에 수정/삭제/반응 반영 (페이지당 이벤트/집계 조회 1번씩)
+     */
+    public List<ChatMessageDto> fold(List<ChatMessageDto> messages) {
+        return fold(messages, false);
+    }
+
+    /**
+     * 방 순번과 같은 트랜잭션(스냅샷)에서 읽은 메시지에 반영 → 반응 수도 반응 행에서 세어 그 순번 시점과 정확히 맞춤
+     * (집계 테이블은 ReactionCounter flush 전까지 늦음)
+     */
+    public List<ChatMessageDto> foldSnapshot(List<ChatMessageDto> messages) {
+        return fold(messages, true);
+    }
+
+    private List<ChatMessageDto> fold(List<ChatMessageDto> messages, boolean snapshot) {
+        List<Long> ids = messages.stream()
+                .map(ChatMessageDto::getId)
+                .filter(Objects::nonNull)
+                .toList();
+        if (ids.isEmpty()) {
+            return messages;
+        }
+
+        Map<Long, String> edits = new HashMap<>();
+        Set<Long> deleted = new HashSet<>();
+        for (ChatMessageEvent event : chatMessageEventRepository.findEditsAndDeletes(ids)) {
+            if (ChatMessageEvent.DELETE.equals(event.getType())) {
+                deleted.add(event.getMessageId());
+            } else if (ChatMessageEvent.EDIT.equals(event.getType())) {
+                edits.put(event.getMessageId(), event.getContent());
+            }
+        }
+
+        Map<Long, Map<String, Long>> reactions = new HashMap<>();
+        if (snapshot) {
+            chatMessageEventRepository.countReactions(ids).forEach(c ->
+                    reactions.computeIfAbsent(c.getMessageId(), id -> new HashMap<>()).put(c.getEmoji(), c.getCnt()));
+        } else {
+            chatMessageEventRepository.findReactionCounts(ids).forEach(c ->
+                    reactions.computeIfAbsent(c.getMessageId(), id -> new HashMap<>()).put(c.getEmoji(), c.getCnt()));
+            reactionCounter.pendingDeltas(ids).forEach((id, deltas) ->
+                    deltas.forEach((emoji, delta) -> reactions.computeIfAbsent(id, k -> new HashMap<>()).merge(emoji, delta, Long::sum)));
+        }
+
+        if (edits.isEmpty() && deleted.isEmpty() && reactions.isEmpty()) {
+            return messages;
+        }
+
+        return messages.stream()
+                .map(m -> {
+                    if (deleted.contains(m.getId())) {
+                        return tombstone(m);
+                    }
+
+                    ChatMessageDto.ChatMessageDtoBuilder builder = m.toBuilder();
+                    if (edits.containsKey(m.getId())) {
+                        builder.message(edits.get(m.getId())).edited(true);
+                    }
+                    if (reactions.containsKey(m.getId())) {
+                        builder.reactions(positive(reactions.get(m.getId())));
+                    }
+                    return builder.build();
+                })
+                .collect(Collectors.toList());
+    }
+
+    // 대상 메시지 (최근 테이블 → 보관 테이블)
+    private Target findTarget(ChatMessageEventReqDto dto) throws Exception {
+        if (dto.getMessageId() == null) {
+            throw new Exception("메시지를 찾을 수 없습니다.");
+        }
+
+        Optional<Target> target = chatRepository.findById(dto.getMessageId())
+                .map(m -> new Target(m.getId(), m.getRoomId(), m.getSender(), m.getType(), m.getCreatedAt()));
+        if (target.isEmpty()) {
+            target = chatArchiveRepository.findById(dto.getMessageId())
+                    .map(m -> new Target(m.getId(), m.getRoomId(), m.getSender(), m.getType(), m.getCreatedAt()));
+        }
+
+        // 다른 방 메시지를 가리키는 요청은 없는 메시지로 취급
+        return target.filter(t -> t.roomId().equals(dto.getRoomId()))
+                .orElseThrow(() -> new Exception("메시지를 찾을 수 없습니다."));
+    }
+
+    private void checkNotDeleted(Long messageId) throws Exception {
+        if (chatMessageEventRepository.existsByMessageIdAndType(messageId, ChatMessageEvent.DELETE)) {
+            throw new Exception("삭제된 메시지입니다.");
+        }
+    }
+
+    private static ChatMessageDto tombstone(ChatMessageDto message) {
+        return message.toBuilder()
+                .message(null)
+                .fileUrl(null)
+                .fileName(null)
+                .fileType(null)
+                .reactions(null)
+                .deleted(true)
+                .build();
+    }
+
+    private static ChatMessageDto withReaction(ChatMessageDto message, String emoji, int delta) {
+        Map<String, Long> reactions = message.getReactions() != null ? new HashMap<>(message.getReactions()) : new HashMap<>();
+        reactions.merge(emoji, (long) delta, Long::sum);
+        return message.toBuilder().reactions(positive(reactions)).build();
+    }
+
+    private static Map<String, Long> positive(Map<String, Long> reactions) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        reactions.forEach((emoji, count) -> {
+            if (count > 0) {
+                result.put(emoji, count);
+            }
+        });
+        return result.isEmpty() ? null : result;
+    }
+
+    private void afterCommit(Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            task.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                task.run();
+            }
+        });
+    }
+
+    private record Target(Long id, Long roomId, String sender, String type, LocalDateTime createdAt) {}
+}
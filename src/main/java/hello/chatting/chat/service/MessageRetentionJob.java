@@ -0,0 +1,200 @@
+package hello.chatting.chat.service;
+
+import hello.chatting.chatroom.domain.RoomType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 방 종류별 보존 기간(chat.retention.*-days)이 지난 메시지 삭제 + 참조가 없는 첨부파일 정리
+ * - 최근/보관 테이블 모두 id keyset 순서로 작은 배치 단위 삭제, 배치 사이 잠깐 쉬어 락/복제 지연 완화
+ * - 첨부파일은 날짜 폴더(file.upload.path/yyyyMMdd)별로 그 날짜 파일 메시지가 참조하지 않는 파일만 삭제
+ * - 진행 상황은 /actuator/metrics/chat.retention.* 로 배치마다 반영
+ */
+@Slf4j
+@Component
+public class MessageRetentionJob {
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    @Value("${chat.retention.enabled:false}")
+    private boolean enabled;
+
+    @Value("${chat.retention.private-days:0}")
+    private int privateDays;
+
+    @Value("${chat.retention.group-days:0}")
+    private int groupDays;
+
+    @Value("${chat.retention.batch-size:500}")
+    private int batchSize;
+
+    @Value("${chat.retention.batch-pause-ms:100}")
+    private long batchPauseMs;
+
+    @Value("${chat.retention.orphan-files.enabled:true}")
+    private boolean orphanFilesEnabled;
+
+    @Value("${chat.retention.orphan-files.min-age-hours:24}")
+    private long orphanMinAgeHours;
+
+    @Value("${file.upload.path}")
+    private String uploadPath;
+
+    private final MessageRetentionService messageRetentionService;
+    private final MeterRegistry registry;
+    private final Counter filesDeleted;
+    private final Counter fileBytesDeleted;
+    private final Timer runTimer;
+
+    public MessageRetentionJob(MessageRetentionService messageRetentionService, MeterRegistry registry) {
+        this.messageRetentionService = messageRetentionService;
+        this.registry = registry;
+        this.filesDeleted = Counter.builder("chat.retention.files.deleted")
+                .description("삭제한 고아 첨부파일 수")
+                .register(registry);
+        this.fileBytesDeleted = Counter.builder("chat.retention.files.bytes")
+                .baseUnit("bytes")
+                .description("삭제한 고아 첨부파일 크기")
+                .register(registry);
+        this.runTimer = Timer.builder("chat.retention.run")
+                .description("보존 기간 정리 1회 소요 시간")
+                .register(registry);
+    }
+
+    @Scheduled(cron = "${chat.retention.cron:0 0 5 * * *}")
+    public void run() {
+        runTimer.record(() -> {
+            if (enabled) {
+                Map.of(RoomType.PRIVATE, privateDays, RoomType.GROUP, groupDays).forEach((roomType, days) -> {
+                    if (days > 0) {
+                        LocalDateTime cutoff = LocalDateTime.now().minusDays(days);
+                        purge(true, roomType, cutoff);
+                        purge(false, roomType, cutoff);
+                    }
+                });
+            }
+            if (orphanFilesEnabled) {
+                deleteOrphanFiles();
+            }
+        });
+    }
+
+    private void purge(boolean archive, RoomType roomType, LocalDateTime cutoff) {
+        String tier = archive ? "archive" : "hot";
+        Counter deleted = Counter.builder("chat.retention.messages.deleted")
+                .tag("tier", tier)
+                .tag("roomType", roomType.name())
+                .description("보존 기간이 지나 삭제한 메시지 수")
+                .register(registry);
+
+        long start = System.currentTimeMillis();
+        long total = 0;
+        long lastId = 0;
+
+        MessageRetentionService.PurgeBatch batch;
+        do {
+            batch = messageRetentionService.purgeBatch(archive, roomType, cutoff, lastId, batchSize);
+            lastId = batch.lastId();
+            total += batch.deleted();
+            deleted.increment(batch.deleted());
+        } while (batch.deleted() == batchSize && pause());
+
+        if (total > 0) {
+            log.info("보존 기간 삭제 완료: {} {} {} 이전 {}건, {}ms", tier, roomType, cutoff, total, System.currentTimeMillis() - start);
+        }
+    }
+
+    private void deleteOrphanFiles() {
+        Path root = Paths.get(uploadPath);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+
+        long count = 0;
+        try (DirectoryStream<Path> days = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path dir : days) {
+                LocalDate day = parseDay(dir.getFileName().toString());
+                // 오늘 폴더는 업로드 중일 수 있어 제외
+                if (day != null && day.isBefore(LocalDate.now())) {
+                    count += deleteOrphanFiles(dir, day);
+                }
+            }
+        } catch (IOException e) {
+            log.error("첨부파일 정리 실패: {}", root, e);
+        }
+
+        if (count > 0) {
+            log.info("고아 첨부파일 삭제 완료: {}건", count);
+        }
+    }
+
+    private long deleteOrphanFiles(Path dir, LocalDate day) throws IOException {
+        Set<String> referenced = messageRetentionService.referencedFileUrls(day);
+        long minModified = System.currentTimeMillis() - orphanMinAgeHours * 3_600_000;
+        String urlPrefix = "/files/" + dir.getFileName() + "/";
+
+        long count = 0;
+        boolean empty = true;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                if (!Files.isRegularFile(file)
+                        || referenced.contains(urlPrefix + file.getFileName())
+                        || Files.getLastModifiedTime(file).toMillis() > minModified) {
+                    empty = false;
+                    continue;
+                }
+
+                long size = Files.size(file);
+                if (Files.deleteIfExists(file)) {
+                    filesDeleted.increment();
+                    fileBytesDeleted.increment(size);
+                    count++;
+                }
+            }
+        }
+
+        if (empty) {
+            Files.deleteIfExists(dir);
+        }
+        return count;
+    }
+
+    private LocalDate parseDay(String name) {
+        try {
+            return LocalDate.parse(name, DAY_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // 배치 사이 쉬기 (종료 중이면 중단)
+    private boolean pause() {
+        if (batchPauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(batchPauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package hello.chatting.chat.service;
+
+import hello.chatting.chat.repository.ChatArchiveRepository;
+import hello.chatting.chat.repository.ChatMessageEventRepository;
+import hello.chatting.chat.repository.ChatRepository;
+import hello.chatting.chatroom.domain.RoomType;
+import hello.chatting.search.service.MessageSearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MessageRetentionService {
+
+    private final ChatRepository chatRepository;
+    private final ChatArchiveRepository chatArchiveRepository;
+    private final ChatMessageEventRepository chatMessageEventRepository;
+    private final RecentMessageBuffer recentMessageBuffer;
+    private final MessageSearchService messageSearchService;
+
+    /**
+     * cutoff 이전 roomType 방 메시지를 afterId 이후부터 batchSize 만큼 삭제 (이벤트/반응 포함)
+     * 한 트랜잭션에 작은 단위로만 지워 락을 오래 잡지 않음, 다음 배치는 반환된 lastId 이후부터
+     */
+    @Transactional
+    public PurgeBatch purgeBatch(boolean archive, RoomType roomType, LocalDateTime cutoff, long afterId, int batchSize) {
+        List<ChatRepository.RetentionTarget> targets = archive
+                ? chatArchiveRepository.findRetentionTargets(roomType.name(), cutoff, afterId, batchSize)
+                : chatRepository.findRetentionTargets(roomType.name(), cutoff, afterId, batchSize);
+        if (targets.isEmpty()) {
+            return new PurgeBatch(0, afterId);
+        }
+
+        List<Long> ids = targets.stream().map(ChatRepository.RetentionTarget::getId).toList();
+        chatMessageEventRepository.deleteEvents(ids);
+        chatMessageEventRepository.deleteReactions(ids);
+        chatMessageEventRepository.deleteReactionCounts(ids);
+        int deleted = archive ? chatArchiveRepository.deleteByIds(ids) : chatRepository.deleteByIds(ids);
+
+        // 커밋 후 메모리 버퍼/검색 색인에서도 제거
+        Set<Long> roomIds = new HashSet<>();
+        targets.forEach(t -> roomIds.add(t.getRoomId()));
+        afterCommit(() -> {
+            roomIds.forEach(recentMessageBuffer::evict);
+            ids.forEach(messageSearchService::removeMessage);
+        });
+
+        return new PurgeBatch(deleted, ids.get(ids.size() - 1));
+    }
+
+    /**
+     * 해당 날짜 폴더에 저장됐을 수 있는 파일 메시지의 file_url (최근/보관 테이블)
+     * 업로드 완료와 메시지 저장 사이에 날짜가 바뀔 수 있어 앞뒤 하루씩 여유를 둠
+     * 복제 지연으로 참조 중인 파일을 지우지 않도록 읽기 전용(복제본)이 아닌 primary 에서 조회
+     */
+    @Transactional
+    public Set<String> referencedFileUrls(LocalDate day) {
+        LocalDateTime from = day.minusDays(1).atStartOfDay();
+        LocalDateTime to = day.plusDays(2).atStartOfDay();
+
+        Set<String> urls = new HashSet<>(chatRepository.findFileUrls(from, to));
+        urls.addAll(chatArchiveRepository.findFileUrls(from, to));
+        return urls;
+    }
+
+    private void afterCommit(Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            task.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                task.run();
+            }
+        });
+    }
+
+    public record PurgeBatch(int deleted, long lastId) {}
+}
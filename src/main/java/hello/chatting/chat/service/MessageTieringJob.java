@@ -0,0 +1,49 @@
+package hello.chatting.chat.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * chat.archive.after-days 보다 오래된 메시지를 보관 테이블로 옮기는 배치
+ * 작은 단위로 끊어서 옮겨 chat_message 락을 오래 잡지 않도록 함
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MessageTieringJob {
+
+    @Value("${chat.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${chat.archive.after-days:90}")
+    private int afterDays;
+
+    @Value("${chat.archive.batch-size:1000}")
+    private int batchSize;
+
+    private final MessageArchiveService messageArchiveService;
+
+    @Scheduled(cron = "${chat.archive.cron:0 30 4 * * *}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+        long start = System.currentTimeMillis();
+        long total = 0;
+
+        int moved;
+        do {
+            moved = messageArchiveService.archiveBatch(cutoff, batchSize);
+            total += moved;
+        } while (moved == batchSize);
+
+        log.info("메시지 보관 완료: {} 이전 {}건, {}ms", cutoff, total, System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,112 @@
+package hello.chatting.chat.service;
+
+import hello.chatting.chat.repository.ChatMessageEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 메시지별 반응 집계 (write-behind)
+ * 반응이 몰려도 집계 행을 매번 갱신하지 않고 메모리에서 (메시지, 이모지) 단위로 증감을 모아
+ * 주기적으로 한 번에 upsert → 같은 집계 행에 대한 락 경합/쓰기 횟수를 줄임
+ * 조회 시에는 DB 집계 + 아직 반영되지 않은 증감을 더해서 보여줌
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReactionCounter {
+
+    private final ChatMessageEventRepository chatMessageEventRepository;
+
+    private final ConcurrentHashMap<Key, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public void add(Long messageId, String emoji, long delta) {
+        // compute 안에서 더해야 flush 가 꺼내간 LongAdder 에 더해져 유실되는 일이 없음
+        pending.compute(new Key(messageId, emoji), (key, adder) -> {
+            LongAdder target = adder != null ? adder : new LongAdder();
+            target.add(delta);
+            return target;
+        });
+    }
+
+    /**
+     * 아직 DB 에 반영되지 않은 증감 (messageId → emoji → delta)
+     */
+    public Map<Long, Map<String, Long>> pendingDeltas(Collection<Long> messageIds) {
+        if (pending.isEmpty()) {
+            return Map.of();
+        }
+
+        Set<Long> ids = new HashSet<>(messageIds);
+        Map<Long, Map<String, Long>> deltas = new HashMap<>();
+        pending.forEach((key, adder) -> {
+            if (ids.contains(key.messageId())) {
+                deltas.computeIfAbsent(key.messageId(), id -> new HashMap<>()).put(key.emoji(), adder.sum());
+            }
+        });
+        return deltas;
+    }
+
+    // 종료 시에도 남은 증감 반영
+    @Transactional
+    @EventListener(ContextClosedEvent.class)
+    @Scheduled(fixedDelayString = "${chat.reaction.flush-interval-ms:1000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<Key, Long> drained = new HashMap<>();
+        for (Key key : pending.keySet()) {
+            pending.computeIfPresent(key, (k, adder) -> {
+                drained.put(k, adder.sum());
+                return null;
+            });
+        }
+
+        // upsert 뒤 커밋이 실패해도 꺼내간 증감이 사라지지 않도록 롤백되면 다시 쌓음
+        boolean requeueOnRollback = TransactionSynchronizationManager.isSynchronizationActive();
+        if (requeueOnRollback) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        requeue(drained);
+                        log.warn("반응 집계 롤백 → 다음 주기에 다시 반영 ({}건)", drained.size());
+                    }
+                }
+            });
+        }
+
+        try {
+            drained.forEach((key, delta) -> {
+                if (delta != 0) {
+                    chatMessageEventRepository.addReactionCount(key.messageId(), key.emoji(), delta);
+                }
+            });
+        } catch (RuntimeException e) {
+            // 반영 실패 → 다음 주기에 다시 시도 (트랜잭션 안이면 롤백 시 다시 쌓임)
+            if (!requeueOnRollback) {
+                requeue(drained);
+            }
+            log.error("반응 집계 반영 실패 ({}건)", drained.size(), e);
+            throw e;
+        }
+    }
+
+    private void requeue(Map<Key, Long> drained) {
+        drained.forEach((key, delta) -> add(key.messageId(), key.emoji(), delta));
+    }
+
+    private record Key(Long messageId, String emoji) {}
+}
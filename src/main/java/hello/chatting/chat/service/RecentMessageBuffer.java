@@ -0,0 +1,248 @@
+package hello.chatting.chat.service;
+
+import hello.chatting.chat.dto.ChatMessageDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.ref.SoftReference;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/**
+ * 최근 활동한 채팅방별 마지막 N개 메시지 링버퍼
+ * - 방을 처음 열 때 DB 에서 방 순번과 함께 채우고(seed), 이후 save/파일 업로드/수정/삭제/반응을 커밋 후 반영
+ * - 추가/변경은 방 순번(seq) 순서대로 반영 → 버퍼 내용은 항상 어떤 순번 시점의 DB 상태와 같음 (첫 페이지의 X-Room-Seq)
+ *   앞 순번을 gap-timeout-ms 넘게 기다리면(커밋 후 반영이 빠진 경우) 방을 비우고 다음 조회 때 다시 채움
+ * - 방 수는 LRU 로 제한, 일정 시간 조회/추가가 없으면 제거
+ * - SoftReference 로 들고 있어 메모리가 부족하면 GC 가 먼저 비움
+ */
+@Slf4j
+@Component
+public class RecentMessageBuffer {
+
+    @Value("${chat.recent-buffer.size:50}")
+    private int capacity;
+
+    @Value("${chat.recent-buffer.max-rooms:5000}")
+    private int maxRooms;
+
+    @Value("${chat.recent-buffer.idle-minutes:30}")
+    private long idleMinutes;
+
+    @Value("${chat.recent-buffer.gap-timeout-ms:5000}")
+    private long gapTimeoutMs;
+
+    private final Map<Long, SoftReference<RoomBuffer>> rooms = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, SoftReference<RoomBuffer>> eldest) {
+            return size() > maxRooms;
+        }
+    };
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 버퍼가 있는 방이면 메시지 추가 (버퍼가 없는 방은 처음 열 때 DB 에서 채움)
+     */
+    public void append(ChatMessageDto message) {
+        RoomBuffer buffer = get(message.getRoomId());
+        if (buffer != null && message.getSeq() != null) {
+            buffer.apply(message.getSeq(), () -> buffer.add(message));
+        }
+    }
+
+    /**
+     * 버퍼에 있는 메시지 갱신 (수정/삭제/반응), 버퍼에 없는 메시지여도 순번은 반영
+     */
+    public void update(Long roomId, long seq, Long messageId, UnaryOperator<ChatMessageDto> updater) {
+        RoomBuffer buffer = get(roomId);
+        if (buffer != null) {
+            buffer.apply(seq, () -> buffer.update(messageId, updater));
+        }
+    }
+
+    /**
+     * 첫 페이지 조회: cutoff(activeAt) 이후 메시지 중 최근 size 건 + 그 시점 방 순번
+     * 버퍼만으로 확실히 알 수 없으면 empty → DB 조회
+     */
+    public Optional<Snapshot> latest(Long roomId, LocalDateTime cutoff, int size) {
+        RoomBuffer buffer = get(roomId);
+        if (buffer == null) {
+            return Optional.empty();
+        }
+        return buffer.latest(cutoff, size);
+    }
+
+    /**
+     * DB 조회 전에 호출 → 조회하는 동안 커밋된 추가/변경도 버퍼에 쌓이도록 먼저 자리를 만들어 둠
+     */
+    public void prepare(Long roomId) {
+        synchronized (rooms) {
+            if (get(roomId) == null) {
+                rooms.put(roomId, new SoftReference<>(new RoomBuffer(capacity)));
+            }
+        }
+    }
+
+    /**
+     * DB 에서 읽은 방의 최근 메시지로 채움
+     * @param wholeHistory 방 전체 메시지가 capacity 보다 적어 전부 들어있는 경우
+     * @param seq          메시지를 읽은 스냅샷의 방 순번 (이후 순번만 반영)
+     */
+    public void seed(Long roomId, List<ChatMessageDto> latestAscending, boolean wholeHistory, long seq) {
+        RoomBuffer buffer = get(roomId);
+        if (buffer != null) {
+            buffer.seed(latestAscending, wholeHistory, seq);
+        }
+    }
+
+    public void evict(Long roomId) {
+        synchronized (rooms) {
+            rooms.remove(roomId);
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        long idleBefore = now - idleMinutes * 60_000;
+        synchronized (rooms) {
+            rooms.values().removeIf(ref -> {
+                RoomBuffer buffer = ref.get();
+                return buffer == null || buffer.lastAccess < idleBefore || buffer.stale(now, gapTimeoutMs);
+            });
+        }
+    }
+
+    private RoomBuffer get(Long roomId) {
+        synchronized (rooms) {
+            SoftReference<RoomBuffer> ref = rooms.get(roomId);
+            RoomBuffer buffer = ref != null ? ref.get() : null;
+            if (ref != null && (buffer == null || buffer.stale(System.currentTimeMillis(), gapTimeoutMs))) {
+                rooms.remove(roomId); // GC 가 비웠거나 빠진 순번을 너무 오래 기다린 방
+                return null;
+            }
+            return buffer;
+        }
+    }
+
+    /**
+     * @param seq messages 가 반영하고 있는 마지막 방 순번
+     */
+    public record Snapshot(List<ChatMessageDto> messages, long seq) {
+    }
+
+    private static final class RoomBuffer {
+        private final int capacity;
+        private final ArrayDeque<ChatMessageDto> messages;
+        private final TreeMap<Long, Runnable> pending = new TreeMap<>(); // seed 전이거나 앞 순번을 기다리는 추가/변경
+        private boolean ready;
+        private boolean wholeHistory;
+        private long seq;          // 반영된 마지막 방 순번
+        private long waitingSince; // pending 을 기다리기 시작한 시각 (0 이면 없음)
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private RoomBuffer(int capacity) {
+            this.capacity = capacity;
+            this.messages = new ArrayDeque<>(capacity);
+        }
+
+        private synchronized void apply(long seq, Runnable change) {
+            lastAccess = System.currentTimeMillis();
+            if (ready && seq <= this.seq) {
+                return; // seed 에 이미 반영된 순번
+            }
+            if (pending.isEmpty()) {
+                waitingSince = lastAccess;
+            }
+            pending.put(seq, change);
+            if (ready) {
+                drain();
+            }
+        }
+
+        // 다음 순번부터 이어지는 만큼 반영
+        private void drain() {
+            boolean progressed = false;
+            while (!pending.isEmpty() && pending.firstKey() == seq + 1) {
+                pending.pollFirstEntry().getValue().run();
+                seq++;
+                progressed = true;
+            }
+            if (pending.isEmpty()) {
+                waitingSince = 0;
+            } else if (progressed) {
+                waitingSince = System.currentTimeMillis();
+            }
+        }
+
+        private void add(ChatMessageDto message) {
+            messages.addLast(message);
+            trim();
+        }
+
+        private void update(Long messageId, UnaryOperator<ChatMessageDto> updater) {
+            if (messages.stream().noneMatch(m -> Objects.equals(m.getId(), messageId))) {
+                return;
+            }
+
+            List<ChatMessageDto> list = new ArrayList<>(messages);
+            list.replaceAll(m -> Objects.equals(m.getId(), messageId) ? updater.apply(m) : m);
+            messages.clear();
+            messages.addAll(list);
+        }
+
+        private synchronized void seed(List<ChatMessageDto> latestAscending, boolean wholeHistory, long seq) {
+            messages.clear();
+            latestAscending.forEach(messages::addLast);
+            this.wholeHistory = wholeHistory;
+            trim();
+
+            this.seq = seq;
+            pending.headMap(seq, true).clear(); // 스냅샷에 이미 반영된 순번
+            ready = true;
+            drain();
+        }
+
+        private synchronized boolean stale(long now, long gapTimeoutMs) {
+            return waitingSince > 0 && now - waitingSince > gapTimeoutMs;
+        }
+
+        private synchronized Optional<Snapshot> latest(LocalDateTime cutoff, int size) {
+            lastAccess = System.currentTimeMillis();
+            if (!ready || size > capacity) {
+                return Optional.empty();
+            }
+
+            List<ChatMessageDto> visible = new ArrayList<>();
+            boolean reachesCutoff = wholeHistory;
+            for (ChatMessageDto message : messages) {
+                if (cutoff == null || message.getCreatedAt().isAfter(cutoff)) {
+                    visible.add(message);
+                } else {
+                    reachesCutoff = true;
+                }
+            }
+
+            if (visible.size() >= size) {
+                return Optional.of(new Snapshot(List.copyOf(visible.subList(visible.size() - size, visible.size())), seq));
+            }
+            if (reachesCutoff) {
+                return Optional.of(new Snapshot(List.copyOf(visible), seq));
+            }
+            return Optional.empty();
+        }
+
+        private void trim() {
+            while (messages.size() > capacity) {
+                messages.pollFirst();
+                wholeHistory = false;
+            }
+        }
+    }
+}
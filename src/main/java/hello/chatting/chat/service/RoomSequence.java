@@ -0,0 +1,33 @@
+package hello.chatting.chat.service;
+
+import hello.chatting.chatroom.repository.ChatRoomRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 방 순번 (chat_room_seq)
+ * - 메시지/수정/삭제/반응을 저장하는 트랜잭션 안에서 INSERT 전에 발급
+ * - 방 순번 행 잠금이 커밋까지 유지 → 같은 방 쓰기는 순번 순서대로 커밋, 롤백되면 순번도 되돌아감 (빈 번호 없음)
+ * - 재연결은 마지막으로 받은 순번 이후를 다시 받음 (ChatService.getMessagesAfter)
+ */
+@Component
+@RequiredArgsConstructor
+public class RoomSequence {
+
+    private final ChatRoomRepository chatRoomRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long next(Long roomId) {
+        chatRoomRepository.incrementSeq(roomId);
+        return chatRoomRepository.findSeq(roomId).orElseThrow();
+    }
+
+    /**
+     * 방의 마지막 순번 (아직 없으면 0), 호출한 트랜잭션의 스냅샷 기준
+     */
+    public long current(Long roomId) {
+        return chatRoomRepository.findSeq(roomId).orElse(0L);
+    }
+}
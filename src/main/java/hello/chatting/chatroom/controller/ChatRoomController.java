@@ -13,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -28,21 +29,22 @@ public class ChatRoomController {
     private final UserService userService;
 
     @GetMapping("/list")
-    public ResponseEntity<?> findAllByUserId(ChatRoomReqDto dto) throws Exception {
-        List<ChatRoomDto> chatRoomDtoList = chatRoomService.findAllByUserId(dto.getUserId()).stream()
-                .map(ChatRoomDto::toDto)
-                .collect(Collectors.toList());
+    public ResponseEntity<?> findAllByUserId(ChatRoomReqDto dto, Principal principal) throws Exception {
+        dto.setUserId(principal.getName());
+        List<ChatRoomDto> chatRoomDtoList = chatRoomService.findAllByUserId(dto.getUserId());
         return ResponseEntity.ok(chatRoomDtoList);
     }
 
     @PostMapping("/find")
-    public ResponseEntity<?> findRoom(@Valid @RequestBody ChatRoomReqDto dto) throws Exception {
+    public ResponseEntity<?> findRoom(@Valid @RequestBody ChatRoomReqDto dto, Principal principal) throws Exception {
+        dto.setUserId(principal.getName());
         ChatRoom privateRoom = chatRoomService.findPrivateRoom(dto);
         return  ResponseEntity.ok(ChatRoomDto.toDto(privateRoom));
     }
 
     @GetMapping("/findRoom")
-    public ResponseEntity<?> getRoomInfo(ChatRoomReqDto dto) {
+    public ResponseEntity<?> getRoomInfo(ChatRoomReqDto dto, Principal principal) throws Exception {
+        dto.setUserId(principal.getName());
         List<ChatRoomMemberDto> userIdNot = chatRoomService.findByRoomIdAndUserIdNot(dto).stream()
                 .map(ChatRoomMemberDto::toDto)
                 .collect(Collectors.toList());
@@ -50,7 +52,8 @@ public class ChatRoomController {
     }
 
     @PostMapping("/userIds")
-    public ResponseEntity<?> findRoomByUserIds(@RequestBody GroupChatRoomReqDto dto) {
+    public ResponseEntity<?> findRoomByUserIds(@RequestBody GroupChatRoomReqDto dto, Principal principal) {
+        dto.setUserId(principal.getName());
 
         List<String> userIds = Optional.ofNullable(dto.getUserIds())
                 .orElse(Collections.emptyList());
@@ -62,13 +65,15 @@ public class ChatRoomController {
 
 
     @PostMapping("/create")
-    public ResponseEntity<?> createRoom(@Valid @RequestBody GroupChatRoomReqDto dto) throws Exception {
+    public ResponseEntity<?> createRoom(@Valid @RequestBody GroupChatRoomReqDto dto, Principal principal) throws Exception {
+        dto.setUserId(principal.getName());
         ChatRoom room = chatRoomService.createRoom(dto);
         return ResponseEntity.ok(ChatRoomDto.toDto(room));
     }
 
     @DeleteMapping
-    public ResponseEntity<?> deleteRoom(@RequestBody DeleteChatRoomReqDto dto) throws Exception {
+    public ResponseEntity<?> deleteRoom(@RequestBody DeleteChatRoomReqDto dto, Principal principal) throws Exception {
+        dto.setUserId(principal.getName());
         chatRoomService.deleteRoom(dto);
         return ResponseEntity.ok().build();
     }
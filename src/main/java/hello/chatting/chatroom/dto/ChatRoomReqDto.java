@@ -13,8 +13,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class ChatRoomReqDto {
 
-    @NotNull(message = "내 아이디")
-    private String userId;
+    private String userId; // 로그인 사용자로 채움 (ChatRoomController)
 
     @NotNull(message = "친구 아이디")
     private String friendId;
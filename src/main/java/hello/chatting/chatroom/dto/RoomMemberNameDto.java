@@ -0,0 +1,11 @@
+package hello.chatting.chatroom.dto;
+
+/**
+ * 채팅방 멤버 이름 (방 이름이 없는 방의 표시 이름용 프로젝션)
+ */
+public record RoomMemberNameDto(
+        Long roomId,
+        String loginId,
+        String name
+) {
+}
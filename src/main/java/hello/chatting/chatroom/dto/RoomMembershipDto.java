@@ -0,0 +1,17 @@
+package hello.chatting.chatroom.dto;
+
+import hello.chatting.chatroom.domain.RoomType;
+
+import java.time.LocalDateTime;
+
+/**
+ * 유저가 속한 채팅방 멤버십 (캐시용)
+ * @param activeAt 채팅방을 나간 시점, 이 시점 이후 메시지만 보임
+ */
+public record RoomMembershipDto(
+        Long roomId,
+        Boolean active,
+        LocalDateTime activeAt,
+        RoomType type
+) {
+}
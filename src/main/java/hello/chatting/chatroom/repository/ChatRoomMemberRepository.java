@@ -2,6 +2,7 @@ package hello.chatting.chatroom.repository;
 
 import hello.chatting.chatroom.domain.ChatRoom;
 import hello.chatting.chatroom.domain.ChatRoomMember;
+import hello.chatting.chatroom.dto.RoomMembershipDto;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -54,5 +55,15 @@ public interface ChatRoomMemberRepository extends JpaRepository<ChatRoomMember,
     Optional<ChatRoomMember> findByRoomIdAndUserId(Long roomId, String userId);
 
     List<ChatRoomMember> findByRoomId(Long roomId);
+
+    List<ChatRoomMember> findByUserIdAndActive(String userId, boolean active);
+
+    @Query("""
+        SELECT new hello.chatting.chatroom.dto.RoomMembershipDto(m.roomId, m.active, m.activeAt, r.type)
+        FROM ChatRoomMember m
+            JOIN ChatRoom r ON r.id = m.roomId
+        WHERE m.userId = :userId
+    """)
+    List<RoomMembershipDto> findMemberships(String userId);
 }
 
@@ -3,13 +3,16 @@ package hello.chatting.chatroom.repository;
 import hello.chatting.chatroom.domain.ChatRoom;
 import hello.chatting.chatroom.domain.ChatRoomMember;
 import hello.chatting.chatroom.domain.RoomType;
+import hello.chatting.chatroom.dto.ChatRoomDto;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
@@ -24,8 +27,10 @@ public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
     """)
     ChatRoom findPrivateRoom(String me, String friendId, RoomType type);
 
+    // 채팅방 목록은 DTO 프로젝션으로 바로 (엔티티 로딩 없이)
     @Query("""
-        SELECT cr FROM ChatRoom cr
+        SELECT new hello.chatting.chatroom.dto.ChatRoomDto(cr.id, cr.type, cr.roomName, cr.createdAt)
+        FROM ChatRoom cr
             JOIN ChatRoomMember m ON cr.id = m.roomId
             LEFT JOIN ChatMessage cm ON cr.id = cm.roomId
         WHERE m.userId = :userId
@@ -33,8 +38,19 @@ public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
         GROUP BY cr.id
         ORDER BY GREATEST(coalesce(MAX(cm.createdAt),'1970-01-01'), cr.createdAt) DESC
     """)
-    List<ChatRoom> findAllByUserId(String userId);
-
+    List<ChatRoomDto> findAllByUserId(String userId);
+
+    // 방 순번 +1 (처음이면 1) → 방 순번 행은 커밋까지 잠김 (RoomSequence)
+    @Modifying
+    @Query(value = """
+        INSERT INTO chat_room_seq (room_id, seq)
+        VALUES (:roomId, 1)
+        ON DUPLICATE KEY UPDATE seq = seq + 1
+    """, nativeQuery = true)
+    int incrementSeq(Long roomId);
+
+    @Query(value = "SELECT seq FROM chat_room_seq WHERE room_id = :roomId", nativeQuery = true)
+    Optional<Long> findSeq(Long roomId);
 
 }
 
@@ -0,0 +1,121 @@
+package hello.chatting.chatroom.service;
+
+import hello.chatting.chatroom.domain.RoomType;
+import hello.chatting.chatroom.dto.RoomMembershipDto;
+import hello.chatting.chatroom.repository.ChatRoomMemberRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 유저별 채팅방 멤버십 캐시 (userId → roomId → 멤버십)
+ * 처음 조회할 때 유저 단위로 한 번에 읽어두고, 방 생성/나가기/재입장 커밋 후 해당 유저만 비움
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatRoomMemberCache {
+
+    @Value("${chat.member-cache.max-users:10000}")
+    private int maxUsers;
+
+    @Value("${chat.member-cache.ttl-minutes:10}")
+    private long ttlMinutes;
+
+    private final ChatRoomMemberRepository chatRoomMemberRepository;
+
+    private final ConcurrentHashMap<String, Entry> cache = new ConcurrentHashMap<>();
+
+    public Optional<RoomMembershipDto> find(String userId, Long roomId) {
+        return Optional.ofNullable(rooms(userId).get(roomId));
+    }
+
+    /**
+     * 방 구독 가능 여부: 참여 중이거나, 나갔어도 1:1 방 (메시지를 보내면 다시 활성화되는 방)
+     */
+    public boolean canSubscribe(String userId, Long roomId) {
+        RoomMembershipDto membership = rooms(userId).get(roomId);
+        return membership != null
+                && (Boolean.TRUE.equals(membership.active()) || membership.type() == RoomType.PRIVATE);
+    }
+
+    public Map<Long, RoomMembershipDto> rooms(String userId) {
+        Entry entry = cache.computeIfAbsent(userId, this::load);
+        entry.touch();
+        return entry.rooms();
+    }
+
+    public void evict(String userId) {
+        cache.remove(userId);
+    }
+
+    /**
+     * 트랜잭션 안이면 커밋 이후에 비움 (커밋 전 다시 읽어 옛 값이 캐시되는 것 방지)
+     */
+    public void evictAfterCommit(Collection<String> userIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            userIds.forEach(this::evict);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userIds.forEach(ChatRoomMemberCache.this::evict);
+            }
+        });
+    }
+
+    // 오래된 항목 정리 + 최대 유저 수 초과 시 가장 오래 안 쓴 유저부터 제거
+    @Scheduled(fixedDelay = 60_000)
+    public void sweep() {
+        long expireBefore = System.currentTimeMillis() - ttlMinutes * 60_000;
+        cache.entrySet().removeIf(e -> e.getValue().lastAccess < expireBefore);
+
+        int overflow = cache.size() - maxUsers;
+        if (overflow > 0) {
+            cache.entrySet().stream()
+                    .sorted((a, b) -> Long.compare(a.getValue().lastAccess, b.getValue().lastAccess))
+                    .limit(overflow)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(cache::remove);
+        }
+    }
+
+    private Entry load(String userId) {
+        List<RoomMembershipDto> memberships = chatRoomMemberRepository.findMemberships(userId);
+        Map<Long, RoomMembershipDto> rooms = memberships.stream()
+                .collect(Collectors.toUnmodifiableMap(RoomMembershipDto::roomId, Function.identity(), (a, b) -> a));
+        return new Entry(rooms);
+    }
+
+    private static final class Entry {
+        private final Map<Long, RoomMembershipDto> rooms;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private Entry(Map<Long, RoomMembershipDto> rooms) {
+            this.rooms = rooms;
+        }
+
+        private Map<Long, RoomMembershipDto> rooms() {
+            return rooms;
+        }
+
+        private void touch() {
+            lastAccess = System.currentTimeMillis();
+        }
+    }
+}
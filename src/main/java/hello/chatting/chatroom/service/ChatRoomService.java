@@ -29,8 +29,10 @@ public class ChatRoomService {
     private final ChatRoomMemberRepository chatRoomMemberRepository;
     private final UserRepository userRepository;
     private final UserService userService;
+    private final ChatRoomMemberCache chatRoomMemberCache;
 
-    // 친구 클릭 시 1:1 채팅 방 조회
+    // 친구 클릭 시 1:1 채팅 방 조회 (없으면 생성 → 쓰기 트랜잭션)
+    @Transactional
     public ChatRoom findPrivateRoom(ChatRoomReqDto dto) throws Exception {
         ChatRoom room = chatRoomRepository.findPrivateRoom(dto.getUserId(), dto.getFriendId(), RoomType.PRIVATE);
 
@@ -82,42 +84,54 @@ public class ChatRoomService {
             throw new Exception("해닫 채팅방을 찾을 수 없습니다.");
         }
 
+        chatRoomMemberCache.evictAfterCommit(partIds);
+
         return room;
     }
 
 
-    // 로그인한 유저의 채팅방 리스트
-    public List<ChatRoom> findAllByUserId(String userId) throws Exception {
+    // 로그인한 유저의 채팅방 리스트 (이름 없는 방은 다른 멤버 이름으로, 멤버 이름은 한 번에 조회)
+    @Transactional(readOnly = true)
+    public List<ChatRoomDto> findAllByUserId(String userId) throws Exception {
 
-        List<ChatRoom> rooms = chatRoomRepository.findAllByUserId(userId);
+        List<ChatRoomDto> rooms = chatRoomRepository.findAllByUserId(userId);
         if (rooms == null) {
             throw new Exception("채팅 리스트를 불러오기를 실패했습니다.");
         }
 
-        List<ChatRoom> result = new ArrayList<>();
-
-        for (ChatRoom room : rooms) {
+        List<Long> unnamedRoomIds = rooms.stream()
+                .filter(room -> room.getRoomName() == null || room.getRoomName().isBlank())
+                .map(ChatRoomDto::getId)
+                .toList();
+        if (unnamedRoomIds.isEmpty()) {
+            return rooms;
+        }
 
-            ChatRoom displayRoom;
+        Map<Long, String> displayNames = userRepository.findChatRoomUserNames(unnamedRoomIds).stream()
+                .filter(member -> !member.loginId().equals(userId))
+                .collect(Collectors.groupingBy(RoomMemberNameDto::roomId,
+                        Collectors.mapping(RoomMemberNameDto::name, Collectors.joining(", "))));
 
+        List<ChatRoomDto> result = new ArrayList<>();
+        for (ChatRoomDto room : rooms) {
             if (room.getRoomName() != null && !room.getRoomName().isBlank()) {
-                displayRoom = room;
+                result.add(room);
             } else {
-                String displayName = convertDisplayRoomName(room.getId(), userId);
-                displayRoom = room.toBuilder()
-                        .roomName(displayName)
-                        .build();
+                result.add(room.toBuilder()
+                        .roomName(displayNames.getOrDefault(room.getId(), ""))
+                        .build());
             }
-
-            result.add(displayRoom);
         }
 
-
         return result;
     }
 
 
-    public List<ChatRoomMember> findByRoomIdAndUserIdNot(ChatRoomReqDto dto) {
+    // 방 참여자만 다른 멤버 목록 조회 가능
+    public List<ChatRoomMember> findByRoomIdAndUserIdNot(ChatRoomReqDto dto) throws Exception {
+        if (chatRoomMemberCache.find(dto.getUserId(), dto.getRoomId()).isEmpty()) {
+            throw new Exception("참여하지 않은 채팅방입니다.");
+        }
         return chatRoomMemberRepository.findByRoomIdAndActiveAndUserIdNot(dto.getRoomId(), true, dto.getUserId());
     }
 
@@ -177,6 +191,7 @@ public class ChatRoomService {
         member.setActive(false);
         member.setActiveAt(LocalDateTime.now());
         chatRoomMemberRepository.save(member);
+        chatRoomMemberCache.evictAfterCommit(List.of(member.getUserId()));
     }
 }
 
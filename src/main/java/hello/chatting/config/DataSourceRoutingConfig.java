@@ -0,0 +1,86 @@
+package hello.chatting.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * 읽기 전용 트랜잭션 → replica, 나머지 → primary
+ * chat.datasource.replica.enabled=true 일 때만 (기본은 spring.datasource 하나)
+ *
+ * LazyConnectionDataSourceProxy 로 감싸서 트랜잭션의 readOnly 가 정해진 뒤 실제 커넥션을 고름
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "chat.datasource.replica.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    private final ReadYourWritesGuard readYourWritesGuard;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("chat.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties) {
+        return DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.getDriverClassName())
+                .build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource) {
+        RoutingDataSource routing = new RoutingDataSource(readYourWritesGuard);
+        routing.setTargetDataSources(Map.of(
+                RoutingDataSource.PRIMARY, primaryDataSource,
+                RoutingDataSource.REPLICA, replicaDataSource
+        ));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+
+        log.info("replica 라우팅 사용: {}", replicaDataSource.getJdbcUrl());
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    static class RoutingDataSource extends AbstractRoutingDataSource {
+
+        static final String PRIMARY = "primary";
+        static final String REPLICA = "replica";
+
+        private final ReadYourWritesGuard guard;
+
+        RoutingDataSource(ReadYourWritesGuard guard) {
+            this.guard = guard;
+        }
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                    guard.markWrite(guard.currentLoginId());
+                }
+                return PRIMARY;
+            }
+            return guard.requiresPrimary() ? PRIMARY : REPLICA;
+        }
+    }
+}
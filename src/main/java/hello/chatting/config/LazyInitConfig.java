@@ -0,0 +1,42 @@
+package hello.chatting.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.Schedules;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * lazy 초기화(faststart)에서도 @Scheduled / @EventListener 메서드가 있는 빈은 기동 시 생성
+ * - lazy 빈은 처음 참조될 때 만들어지므로 그 전까지 스케줄/리스너가 등록되지 않음
+ * - 빈마다 @Lazy(false) 를 붙이지 않고 여기서 한 번에 제외
+ */
+@Configuration
+public class LazyInitConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter scheduledAndListenerBeans() {
+        return (beanName, beanDefinition, beanType) -> beanType != null && hasEagerMethod(beanType);
+    }
+
+    static boolean hasEagerMethod(Class<?> beanType) {
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(ClassUtils.getUserClass(beanType),
+                method -> found.set(true),
+                method -> !found.get() && isEager(method));
+        return found.get();
+    }
+
+    private static boolean isEager(Method method) {
+        return AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                || AnnotatedElementUtils.hasAnnotation(method, Schedules.class)
+                || AnnotatedElementUtils.hasAnnotation(method, EventListener.class); // @TransactionalEventListener 포함
+    }
+}
@@ -0,0 +1,71 @@
+package hello.chatting.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 방금 쓴 사용자는 잠시 동안 읽기도 primary 에서 (replica 복제 지연 대비)
+ * - 쓰기 시각을 사용자(loginId)별로 기록, window 안이면 replica 로 보내지 않음
+ * - 사용자는 SecurityContext 에서, 없으면(STOMP 처리 스레드) ReadYourWritesInterceptor 가 묶어 둔 연결 사용자
+ */
+@Component
+public class ReadYourWritesGuard {
+
+    @Value("${chat.datasource.replica.read-your-writes-ms:3000}")
+    private long windowMillis;
+
+    private final ConcurrentHashMap<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private final ThreadLocal<String> boundLoginId = new ThreadLocal<>();
+
+    public void markWrite(String loginId) {
+        if (loginId != null) {
+            lastWrites.put(loginId, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * 현재 요청 사용자가 최근에 쓴 적이 있으면 true
+     */
+    public boolean requiresPrimary() {
+        String loginId = currentLoginId();
+        if (loginId == null) {
+            return false;
+        }
+        Long lastWrite = lastWrites.get(loginId);
+        return lastWrite != null && System.currentTimeMillis() - lastWrite < windowMillis;
+    }
+
+    public String currentLoginId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            return authentication.getName();
+        }
+        return boundLoginId.get();
+    }
+
+    /**
+     * 현재 스레드가 처리하는 STOMP 메시지의 연결 사용자 (처리가 끝나면 clear)
+     */
+    public void bind(String loginId) {
+        if (loginId == null) {
+            boundLoginId.remove();
+        } else {
+            boundLoginId.set(loginId);
+        }
+    }
+
+    public void clear() {
+        boundLoginId.remove();
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void sweep() {
+        long before = System.currentTimeMillis() - windowMillis;
+        lastWrites.values().removeIf(lastWrite -> lastWrite < before);
+    }
+}
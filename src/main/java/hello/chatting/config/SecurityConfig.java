@@ -16,7 +16,10 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig {
 
     private final CustomOAuth2UserService customOAuth2UserService;
-    private static final String[] WHITELIST = {"/", "/oauth2/**", "/css/**", "/js/**", "/images/**", "/login"};
+    // /ws-stomp : STOMP 는 CONNECT 프레임의 ws 토큰으로 인증 (StompAuthInterceptor)
+    // /actuator/health : 로드밸런서 헬스 체크
+    private static final String[] WHITELIST = {"/", "/oauth2/**", "/css/**", "/js/**", "/images/**", "/login",
+            "/ws-stomp/**", "/actuator/health/**"};
 
     @Bean
     public WebSecurityCustomizer webSecurityCustomizer() {
@@ -31,6 +34,7 @@ public class SecurityConfig {
         httpSecurity
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(WHITELIST).permitAll() // 인증안해도 되는 url
+                        .requestMatchers("/admin/**").hasRole("ADMIN") // 관리자 (user.role = ADMIN)
                         .anyRequest().authenticated()
                 )
                 // 일반 폼(내가 만든) 로그인 설정
@@ -1,6 +1,15 @@
 package hello.chatting.config;
 
+import hello.chatting.metrics.MessageTracer;
+import hello.chatting.websocket.HandshakeAdmissionInterceptor;
+import hello.chatting.websocket.OutboundBackpressure;
+import hello.chatting.websocket.RateLimitInterceptor;
+import hello.chatting.websocket.ReadYourWritesInterceptor;
+import hello.chatting.websocket.StompAuthInterceptor;
+import hello.chatting.websocket.SubscriptionAuthInterceptor;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -9,23 +18,52 @@ import org.springframework.web.socket.config.annotation.WebSocketTransportRegist
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSockConfig  implements WebSocketMessageBrokerConfigurer {
 
+    private final HandshakeAdmissionInterceptor handshakeAdmissionInterceptor;
+    private final StompAuthInterceptor stompAuthInterceptor;
+    private final SubscriptionAuthInterceptor subscriptionAuthInterceptor;
+    private final RateLimitInterceptor rateLimitInterceptor;
+    private final ReadYourWritesInterceptor readYourWritesInterceptor;
+    private final MessageTracer messageTracer;
+    private final OutboundBackpressure outboundBackpressure;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         config.enableSimpleBroker("/sub", "/queue"); // 구독 : /sub → 서버 → 클라이언트
         config.setApplicationDestinationPrefixes("/pub"); // /pub → 클라이언트 → 서버
+        config.configureBrokerChannel().interceptors(messageTracer.brokerInterceptor()); // 지연 추적 (브로커 진입)
     }
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
-        registry.addEndpoint("/ws-stomp").setAllowedOriginPatterns("*").withSockJS();
+        registry.addEndpoint("/ws-stomp")
+                .setAllowedOriginPatterns("*")
+                .addInterceptors(handshakeAdmissionInterceptor) // 재연결 폭주 시 handshake 수 제한, drain 중 거부
+                .withSockJS();
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(
+                stompAuthInterceptor, // CONNECT 토큰 인증 → 연결 사용자 지정 (먼저 실행)
+                subscriptionAuthInterceptor, // 채팅방 구독 권한
+                rateLimitInterceptor, // 사용자/방 단위 전송 속도 제한
+                messageTracer.inboundInterceptor(), // 지연 추적 샘플링 (제한을 통과한 메시지만)
+                readYourWritesInterceptor // 처리 스레드에 연결 사용자를 묶어 replica 라우팅이 사용자를 알도록
+        );
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(messageTracer.outboundInterceptor()); // 지연 추적 (구독자 전송)
     }
 
     @Override
     public void configureWebSocketTransport(WebSocketTransportRegistration registry) {
         registry.setMessageSizeLimit(1024 * 1024); // 메시지 최대 1MB
-        registry.setSendBufferSizeLimit(1024 * 1024); // 송신 버퍼 1MB
-        registry.setSendTimeLimit(20000); // 20초
+        // 송신 버퍼/시간 제한은 chat.outbound.* 로 (세션 송신 큐가 바로 반환하므로 setSendBufferSizeLimit/setSendTimeLimit 는 걸리지 않음)
+        registry.addDecoratorFactory(outboundBackpressure); // 세션별 송신 큐, 느린 클라이언트 정책 (chat.outbound.*)
     }
 }
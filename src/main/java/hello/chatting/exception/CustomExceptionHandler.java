@@ -2,6 +2,8 @@ package hello.chatting.exception;
 
 import hello.chatting.exception.Error.Error;
 import hello.chatting.exception.dto.ExceptionResponseDTO;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -25,6 +27,14 @@ public class CustomExceptionHandler {
                 .body("업로드 가능한 파일 크기를 초과했습니다. (최대 20MB)");
     }
 
+    // 업로드 스레드풀이 꽉 참 → 잠시 후 재시도
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<?> taskRejectedException(TaskRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(new ExceptionResponseDTO<>(-1, "업로드 요청이 많습니다. 잠시 후 다시 시도해주세요.", null));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<?> validationApiException(MethodArgumentNotValidException e) {
 
@@ -0,0 +1,124 @@
+package hello.chatting.metrics;
+
+import hello.chatting.websocket.SubscriptionTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채팅 파이프라인 지표 (/actuator/metrics/chat.*)
+ * 메시지마다 기록하는 지표는 미리 만들어 둔 Counter/Timer 에 값만 더함 (태그 조회/생성 없음)
+ * 큐 길이, 세션/구독 수는 조회 시점에 계산하는 Gauge
+ */
+@Component
+public class ChatMetrics {
+
+    private final Counter received;
+    private final Counter broadcast;
+    private final DistributionSummary fanout;
+    private final Timer save;
+    private final DistributionSummary uploadBytes;
+    private final Timer upload;
+    private final DistributionSummary historyBufferRows;
+    private final DistributionSummary historyDbRows;
+    private final DistributionSummary historyFullRows;
+    private final DistributionSummary resumeRows;
+
+    public ChatMetrics(MeterRegistry registry,
+                       SubscriptionTracker subscriptionTracker,
+                       @Qualifier("clientInboundChannelExecutor") ObjectProvider<ThreadPoolTaskExecutor> inboundExecutor,
+                       @Qualifier("clientOutboundChannelExecutor") ObjectProvider<ThreadPoolTaskExecutor> outboundExecutor) {
+        this.received = Counter.builder("chat.messages.received")
+                .description("수신한 채팅 메시지 수")
+                .register(registry);
+        this.broadcast = Counter.builder("chat.messages.broadcast")
+                .description("방으로 브로드캐스트한 메시지 수")
+                .register(registry);
+        this.fanout = DistributionSummary.builder("chat.broadcast.fanout")
+                .description("브로드캐스트 1건당 구독자 수")
+                .register(registry);
+        this.save = Timer.builder("chat.message.save")
+                .description("메시지 저장 (트랜잭션 커밋 포함)")
+                .register(registry);
+        this.uploadBytes = DistributionSummary.builder("chat.upload.size")
+                .baseUnit("bytes")
+                .description("업로드 파일 크기")
+                .register(registry);
+        this.upload = Timer.builder("chat.upload")
+                .description("업로드 파일 저장 시간")
+                .register(registry);
+        this.historyBufferRows = historyRows(registry, "buffer");
+        this.historyDbRows = historyRows(registry, "db");
+        this.historyFullRows = historyRows(registry, "full");
+        this.resumeRows = historyRows(registry, "resume");
+
+        Gauge.builder("chat.stomp.sessions", subscriptionTracker, SubscriptionTracker::sessionCount)
+                .description("연결된 STOMP 세션 수")
+                .register(registry);
+        Gauge.builder("chat.stomp.subscriptions", subscriptionTracker, SubscriptionTracker::subscriptionCount)
+                .description("STOMP 구독 수")
+                .register(registry);
+        Gauge.builder("chat.channel.queue", inboundExecutor, ChatMetrics::queueSize)
+                .tag("channel", "inbound")
+                .description("채널 실행기 대기 작업 수")
+                .register(registry);
+        Gauge.builder("chat.channel.queue", outboundExecutor, ChatMetrics::queueSize)
+                .tag("channel", "outbound")
+                .description("채널 실행기 대기 작업 수")
+                .register(registry);
+    }
+
+    public void messageReceived() {
+        received.increment();
+    }
+
+    public void messageBroadcast(int subscribers) {
+        broadcast.increment();
+        fanout.record(subscribers);
+    }
+
+    public void recordSave(long nanos) {
+        save.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordUpload(long bytes, long nanos) {
+        uploadBytes.record(bytes);
+        upload.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordHistoryFromBuffer(int rows) {
+        historyBufferRows.record(rows);
+    }
+
+    public void recordHistoryFromDb(int rows) {
+        historyDbRows.record(rows);
+    }
+
+    public void recordFullHistory(int rows) {
+        historyFullRows.record(rows);
+    }
+
+    public void recordResume(int rows) {
+        resumeRows.record(rows);
+    }
+
+    private static DistributionSummary historyRows(MeterRegistry registry, String source) {
+        return DistributionSummary.builder("chat.history.rows")
+                .tag("source", source)
+                .description("이력 조회 1회당 메시지 수")
+                .register(registry);
+    }
+
+    private static double queueSize(ObjectProvider<ThreadPoolTaskExecutor> executor) {
+        ThreadPoolTaskExecutor available = executor.getIfAvailable();
+        return available != null ? available.getThreadPoolExecutor().getQueue().size() : 0;
+    }
+}
@@ -0,0 +1,34 @@
+package hello.chatting.metrics;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 샘플링된 메시지 한 건의 단계별 시각 (System.nanoTime)
+ * 메시지 헤더(MessageTracer.TRACE_HEADER)로 inbound → 컨트롤러 → 브로커 → outbound 까지 전달
+ */
+public class MessageTrace {
+
+    final String roomId;
+    final String sender;
+    final String sampledBy;          // random / room:{id} / user:{loginId}
+    final long receivedAt;           // inbound 채널 진입 (큐 대기 시작)
+    volatile long handledAt;         // inbound 스레드에서 처리 시작
+    volatile long savedAt;           // ChatService.save 커밋 완료
+    volatile long brokerAt;          // 브로커 채널 진입 (RoomDispatcher 는 방 워커에 넘긴 시각)
+    final AtomicBoolean reported = new AtomicBoolean();
+
+    MessageTrace(String roomId, String sender, String sampledBy, long receivedAt) {
+        this.roomId = roomId;
+        this.sender = sender;
+        this.sampledBy = sampledBy;
+        this.receivedAt = receivedAt;
+    }
+
+    public void markSaved() {
+        savedAt = System.nanoTime();
+    }
+
+    public void markBroker() {
+        brokerAt = System.nanoTime();
+    }
+}
@@ -0,0 +1,241 @@
+package hello.chatting.metrics;
+
+import hello.chatting.metrics.dto.MessageTraceDto;
+import hello.chatting.websocket.StompFrames;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 채팅 메시지 단계별 지연 추적 (/pub/chat/message → 구독자 전송)
+ * - sample-rate 비율로 랜덤 샘플링 + 관리자가 지정한 방/유저는 N건 강제 샘플링
+ * - 샘플링되지 않은 메시지는 난수 하나 뽑는 비용만 듦
+ * - 단계별 지연은 chat.message.latency{stage} 히스토그램, 최근 추적 결과는 /admin/trace 에서 조회
+ *
+ * 단계: inbound.queue(수신 큐 대기) → save(저장+커밋) → broker(브로커 전달) → outbound.queue(송신 큐 대기) → outbound.send(세션 전송)
+ */
+@Slf4j
+@Component
+public class MessageTracer {
+
+    public static final String TRACE_HEADER = "chatTrace";
+    private static final String MESSAGE_DESTINATION = "/pub/chat/message";
+
+    @Value("${chat.trace.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Value("${chat.trace.recent-size:200}")
+    private int recentSize;
+
+    private final Timer inboundQueue;
+    private final Timer save;
+    private final Timer broker;
+    private final Timer outboundQueue;
+    private final Timer outboundSend;
+    private final Timer total;
+
+    // 강제 샘플링 대상 (room:{id} / user:{loginId} → 남은 건수)
+    private final ConcurrentHashMap<String, AtomicInteger> targets = new ConcurrentHashMap<>();
+    private final Deque<MessageTraceDto> recent = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger recentCount = new AtomicInteger();
+
+    private final ThreadLocal<Long> outboundStart = new ThreadLocal<>();
+
+    public MessageTracer(MeterRegistry registry) {
+        this.inboundQueue = stageTimer(registry, "inbound.queue");
+        this.save = stageTimer(registry, "save");
+        this.broker = stageTimer(registry, "broker");
+        this.outboundQueue = stageTimer(registry, "outbound.queue");
+        this.outboundSend = stageTimer(registry, "outbound.send");
+        this.total = stageTimer(registry, "total");
+    }
+
+    /**
+     * 방 또는 유저의 다음 count 건 메시지를 추적
+     */
+    public void traceRoom(Long roomId, int count) {
+        targets.put("room:" + roomId, new AtomicInteger(count));
+    }
+
+    public void traceUser(String loginId, int count) {
+        targets.put("user:" + loginId, new AtomicInteger(count));
+    }
+
+    public List<MessageTraceDto> recentTraces() {
+        List<MessageTraceDto> traces = new ArrayList<>(recent);
+        Collections.reverse(traces); // 최신순
+        return traces;
+    }
+
+    public ChannelInterceptor inboundInterceptor() {
+        return new InboundInterceptor();
+    }
+
+    public ChannelInterceptor brokerInterceptor() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                MessageTrace trace = trace(message);
+                if (trace != null) {
+                    trace.brokerAt = System.nanoTime();
+                }
+                return message;
+            }
+        };
+    }
+
+    public ChannelInterceptor outboundInterceptor() {
+        return new OutboundInterceptor();
+    }
+
+    private MessageTrace start(Message<?> message, StompHeaderAccessor accessor) {
+        Principal user = accessor.getUser();
+        String sender = user != null ? user.getName() : null;
+        String roomId = message.getPayload() instanceof byte[] body ? StompFrames.findRoomId(body) : null;
+
+        String sampledBy = null;
+        if (!targets.isEmpty()) {
+            sampledBy = claimTarget("room:" + roomId);
+            if (sampledBy == null && sender != null) {
+                sampledBy = claimTarget("user:" + sender);
+            }
+        }
+        if (sampledBy == null && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            sampledBy = "random";
+        }
+        return sampledBy != null ? new MessageTrace(roomId, sender, sampledBy, System.nanoTime()) : null;
+    }
+
+    private String claimTarget(String key) {
+        AtomicInteger remaining = targets.get(key);
+        if (remaining == null) {
+            return null;
+        }
+        if (remaining.decrementAndGet() <= 0) {
+            targets.remove(key, remaining);
+        }
+        return key;
+    }
+
+    // 첫 번째 구독자 전송이 끝나면 단계별 지연 기록
+    private void complete(MessageTrace trace, long sendStart, long sendEnd) {
+        if (!trace.reported.compareAndSet(false, true) || trace.handledAt == 0 || trace.savedAt == 0 || trace.brokerAt == 0) {
+            return;
+        }
+
+        long inboundQueueNanos = trace.handledAt - trace.receivedAt;
+        long saveNanos = trace.savedAt - trace.handledAt;
+        long brokerNanos = trace.brokerAt - trace.savedAt;
+        long outboundQueueNanos = sendStart - trace.brokerAt;
+        long sendNanos = sendEnd - sendStart;
+        long totalNanos = sendEnd - trace.receivedAt;
+
+        inboundQueue.record(inboundQueueNanos, TimeUnit.NANOSECONDS);
+        save.record(saveNanos, TimeUnit.NANOSECONDS);
+        broker.record(brokerNanos, TimeUnit.NANOSECONDS);
+        outboundQueue.record(outboundQueueNanos, TimeUnit.NANOSECONDS);
+        outboundSend.record(sendNanos, TimeUnit.NANOSECONDS);
+        total.record(totalNanos, TimeUnit.NANOSECONDS);
+
+        recent.addLast(new MessageTraceDto(LocalDateTime.now(), trace.roomId, trace.sender, trace.sampledBy,
+                millis(inboundQueueNanos), millis(saveNanos), millis(brokerNanos),
+                millis(outboundQueueNanos), millis(sendNanos), millis(totalNanos)));
+        if (recentCount.incrementAndGet() > recentSize) {
+            recent.pollFirst();
+            recentCount.decrementAndGet();
+        }
+
+        if (!"random".equals(trace.sampledBy)) {
+            log.info("메시지 추적 [{}] room={}, sender={}, total={}ms", trace.sampledBy, trace.roomId, trace.sender, millis(totalNanos));
+        }
+    }
+
+    private static MessageTrace trace(Message<?> message) {
+        return message.getHeaders().get(TRACE_HEADER, MessageTrace.class);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static Timer stageTimer(MeterRegistry registry, String stage) {
+        return Timer.builder("chat.message.latency")
+                .tag("stage", stage)
+                .description("샘플링된 채팅 메시지 단계별 지연")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private class InboundInterceptor implements ExecutorChannelInterceptor {
+
+        @Override
+        public Message<?> preSend(Message<?> message, MessageChannel channel) {
+            StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+            if (accessor == null || accessor.getCommand() != StompCommand.SEND
+                    || !MESSAGE_DESTINATION.equals(accessor.getDestination())) {
+                return message;
+            }
+
+            MessageTrace trace = start(message, accessor);
+            if (trace != null && accessor.isMutable()) {
+                accessor.setHeader(TRACE_HEADER, trace);
+            }
+            return message;
+        }
+
+        @Override
+        public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+            MessageTrace trace = trace(message);
+            if (trace != null && trace.handledAt == 0) {
+                trace.handledAt = System.nanoTime();
+            }
+            return message;
+        }
+    }
+
+    private class OutboundInterceptor implements ExecutorChannelInterceptor {
+
+        @Override
+        public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+            if (trace(message) != null) {
+                outboundStart.set(System.nanoTime());
+            }
+            return message;
+        }
+
+        @Override
+        public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+            MessageTrace trace = trace(message);
+            Long sendStart = outboundStart.get();
+            if (trace == null || sendStart == null) {
+                return;
+            }
+            outboundStart.remove();
+            if (ex == null) {
+                complete(trace, sendStart, System.nanoTime());
+            }
+        }
+    }
+}
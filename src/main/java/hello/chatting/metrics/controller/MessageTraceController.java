@@ -0,0 +1,42 @@
+package hello.chatting.metrics.controller;
+
+import hello.chatting.metrics.MessageTracer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 메시지 지연 추적 (관리자)
+ * POST /admin/trace?roomId=1&count=20 또는 ?userId=abc → 다음 count 건 추적
+ * GET  /admin/trace → 최근 추적 결과 (랜덤 샘플 포함)
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/admin/trace")
+public class MessageTraceController {
+
+    private static final int MAX_COUNT = 1000;
+
+    private final MessageTracer messageTracer;
+
+    @PostMapping
+    public ResponseEntity<?> trace(@RequestParam(value = "roomId", required = false) Long roomId,
+                                   @RequestParam(value = "userId", required = false) String userId,
+                                   @RequestParam(value = "count", defaultValue = "20") int count) throws Exception {
+        int limited = Math.max(1, Math.min(count, MAX_COUNT));
+        if (roomId != null) {
+            messageTracer.traceRoom(roomId, limited);
+        } else if (StringUtils.hasText(userId)) {
+            messageTracer.traceUser(userId, limited);
+        } else {
+            throw new Exception("roomId 또는 userId 를 입력하세요.");
+        }
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping
+    public ResponseEntity<?> recent() {
+        return ResponseEntity.ok(messageTracer.recentTraces());
+    }
+}
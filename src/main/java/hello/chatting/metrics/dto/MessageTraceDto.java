@@ -0,0 +1,20 @@
+package hello.chatting.metrics.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 샘플링된 메시지의 단계별 지연 (ms, 첫 번째 구독자 전송 기준)
+ */
+public record MessageTraceDto(
+        LocalDateTime tracedAt,
+        String roomId,
+        String sender,
+        String sampledBy,
+        double inboundQueueMs,
+        double saveMs,
+        double brokerMs,
+        double outboundQueueMs,
+        double sendMs,
+        double totalMs
+) {
+}
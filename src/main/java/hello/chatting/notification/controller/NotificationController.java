@@ -0,0 +1,28 @@
+package hello.chatting.notification.controller;
+
+import hello.chatting.notification.dto.NotificationDigestDto;
+import hello.chatting.notification.service.NotificationDigestService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+
+@Slf4j
+@Controller
+@RequiredArgsConstructor
+public class NotificationController {
+
+    private final NotificationDigestService notificationDigestService;
+
+    /**
+     * 접속(재연결) 직후 클라이언트가 요청 → 쌓인 알림 요약을 한 번에 전달
+     */
+    @MessageMapping("notification/digest")
+    @SendToUser(value = "/queue/notification/digest", broadcast = false)
+    public NotificationDigestDto digest(Principal principal) {
+        return notificationDigestService.deliver(principal.getName());
+    }
+}
@@ -0,0 +1,43 @@
+package hello.chatting.notification.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 오프라인 사용자 알림 요약 (사용자 × 방 당 한 행)
+ * 같은 방 알림은 건수만 늘리고 마지막 보낸 사람/내용으로 덮어씀
+ */
+@ToString
+@Getter
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "chat_notification_digest", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_chat_notification_digest_user_room", columnNames = {"user_id", "room_id"})
+})
+public class NotificationDigest {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "room_id", nullable = false)
+    private Long roomId;
+
+    @Column(name = "message_count", nullable = false)
+    private Integer messageCount;
+
+    private String lastSenderName;
+    private String lastSenderProfileImage;
+    private String lastContent;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+}
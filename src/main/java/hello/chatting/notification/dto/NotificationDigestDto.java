@@ -0,0 +1,25 @@
+package hello.chatting.notification.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 접속하지 않은 동안 쌓인 알림 요약 ("3개 채팅방에 12개의 새 메시지")
+ * @param rooms 최근 알림이 온 방 순
+ */
+public record NotificationDigestDto(
+        int totalCount,
+        int roomCount,
+        List<RoomDigest> rooms
+) {
+
+    public record RoomDigest(
+            Long roomId,
+            int count,
+            String lastSenderName,
+            String lastSenderProfileImage,
+            String lastContent,
+            LocalDateTime updatedAt
+    ) {
+    }
+}
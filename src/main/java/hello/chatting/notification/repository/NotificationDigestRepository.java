@@ -0,0 +1,63 @@
+package hello.chatting.notification.repository;
+
+import hello.chatting.notification.domain.NotificationDigest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationDigestRepository extends JpaRepository<NotificationDigest, Long> {
+
+    List<NotificationDigest> findByUserIdOrderByUpdatedAtDesc(String userId);
+
+    // 같은 방 요약이 있으면 건수 증가 + 마지막 알림으로 덮어씀
+    @Modifying
+    @Query(value = """
+        INSERT INTO chat_notification_digest
+            (user_id, room_id, message_count, last_sender_name, last_sender_profile_image, last_content, updated_at)
+        VALUES (:userId, :roomId, :count, :senderName, :senderProfileImage, :content, :updatedAt)
+        ON DUPLICATE KEY UPDATE
+            message_count = message_count + :count,
+            last_sender_name = :senderName,
+            last_sender_profile_image = :senderProfileImage,
+            last_content = :content,
+            updated_at = :updatedAt
+    """, nativeQuery = true)
+    int upsert(String userId, Long roomId, int count, String senderName, String senderProfileImage,
+               String content, LocalDateTime updatedAt);
+
+    // 사용자당 최근 maxRooms 개 방만 남김
+    @Modifying
+    @Query(value = """
+        DELETE FROM chat_notification_digest
+        WHERE user_id = :userId
+          AND id NOT IN (
+              SELECT id FROM (
+                  SELECT id
+                  FROM chat_notification_digest
+                  WHERE user_id = :userId
+                  ORDER BY updated_at DESC, id DESC
+                  LIMIT :maxRooms
+              ) latest
+          )
+    """, nativeQuery = true)
+    int trim(String userId, int maxRooms);
+
+    // 전달한 요약 삭제 (읽은 뒤 갱신된 행은 건수/시각이 달라 남음 → 다음에 전달)
+    @Modifying
+    @Query(value = """
+        DELETE FROM chat_notification_digest
+        WHERE id = :id
+          AND updated_at = :updatedAt
+          AND message_count = :messageCount
+    """, nativeQuery = true)
+    int deleteDelivered(Long id, LocalDateTime updatedAt, int messageCount);
+
+    @Modifying
+    @Query(value = "DELETE FROM chat_notification_digest WHERE updated_at < :cutoff", nativeQuery = true)
+    int deleteExpired(LocalDateTime cutoff);
+}
@@ -0,0 +1,193 @@
+package hello.chatting.notification.service;
+
+import hello.chatting.chat.dto.AlarmMessageDto;
+import hello.chatting.notification.domain.NotificationDigest;
+import hello.chatting.notification.dto.NotificationDigestDto;
+import hello.chatting.notification.repository.NotificationDigestRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * 접속하지 않은 사용자의 알림을 방 단위 요약으로 저장 → 다시 접속하면 한 프레임으로 전달
+ * - 알림은 메모리에서 (사용자, 방) 단위로 합친 뒤 주기적으로 upsert → 알림이 몰려도 DB 쓰기는 방당 한 번
+ * - 사용자당 최근 max-rooms 개 방만 보관, ttl-days 가 지난 요약은 삭제
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationDigestService {
+
+    private static final int MAX_CONTENT_LENGTH = 100;
+    private static final int MAX_COLUMN_LENGTH = 255;
+
+    @Value("${chat.notification.digest.max-rooms:50}")
+    private int maxRooms;
+
+    @Value("${chat.notification.digest.ttl-days:14}")
+    private int ttlDays;
+
+    @Value("${chat.notification.digest.max-attempts:5}")
+    private int maxAttempts;
+
+    private final NotificationDigestRepository notificationDigestRepository;
+    private final NotificationDigestWriter notificationDigestWriter;
+
+    private final ConcurrentHashMap<Key, Pending> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 오프라인 사용자에게 온 알림 기록 (같은 방은 건수만 늘리고 마지막 알림으로 덮어씀)
+     */
+    public void record(String userId, AlarmMessageDto alarm) {
+        if (userId == null || alarm.getRoomId() == null) {
+            return;
+        }
+
+        // 컬럼 길이를 넘는 값은 잘라서 보관 (반영 실패로 다른 요약까지 막히지 않도록)
+        String profileImage = alarm.getSenderProfileImage();
+        Pending latest = new Pending(1,
+                truncate(alarm.getSenderName(), MAX_COLUMN_LENGTH),
+                profileImage != null && profileImage.length() > MAX_COLUMN_LENGTH ? null : profileImage,
+                preview(alarm.getContent()),
+                0);
+        pending.merge(new Key(userId, alarm.getRoomId()), latest, Pending::merge);
+    }
+
+    /**
+     * 쌓인 요약을 꺼내서 전달 (전달한 요약은 삭제)
+     */
+    @Transactional
+    public NotificationDigestDto deliver(String userId) {
+        write(drain(key -> key.userId().equals(userId)));
+
+        List<NotificationDigest> digests = notificationDigestRepository.findByUserIdOrderByUpdatedAtDesc(userId);
+        if (digests.isEmpty()) {
+            return new NotificationDigestDto(0, 0, List.of());
+        }
+
+        int total = 0;
+        List<NotificationDigestDto.RoomDigest> rooms = new ArrayList<>();
+        for (NotificationDigest digest : digests) {
+            // 읽은 값 그대로인 행만 삭제 (읽은 뒤 다른 반영이 커밋됐으면 남겨서 다음에 전달)
+            notificationDigestRepository.deleteDelivered(digest.getId(), digest.getUpdatedAt(), digest.getMessageCount());
+
+            total += digest.getMessageCount();
+            rooms.add(new NotificationDigestDto.RoomDigest(
+                    digest.getRoomId(),
+                    digest.getMessageCount(),
+                    digest.getLastSenderName(),
+                    digest.getLastSenderProfileImage(),
+                    digest.getLastContent(),
+                    digest.getUpdatedAt()
+            ));
+        }
+        return new NotificationDigestDto(total, rooms.size(), rooms);
+    }
+
+    // 종료 시에도 남은 알림 반영 (건별 트랜잭션)
+    @EventListener(ContextClosedEvent.class)
+    @Scheduled(fixedDelayString = "${chat.notification.digest.flush-interval-ms:2000}")
+    public void flush() {
+        write(drain(key -> true));
+    }
+
+    @Transactional
+    @Scheduled(cron = "${chat.notification.digest.cleanup-cron:0 0 5 * * *}")
+    public void deleteExpired() {
+        int deleted = notificationDigestRepository.deleteExpired(LocalDateTime.now().minusDays(ttlDays));
+        if (deleted > 0) {
+            log.info("만료된 알림 요약 삭제: {}건", deleted);
+        }
+    }
+
+    private Map<Key, Pending> drain(Predicate<Key> filter) {
+        Map<Key, Pending> drained = new HashMap<>();
+        for (Key key : pending.keySet()) {
+            if (filter.test(key)) {
+                pending.computeIfPresent(key, (k, p) -> {
+                    drained.put(k, p);
+                    return null;
+                });
+            }
+        }
+        return drained;
+    }
+
+    // (사용자, 방) 한 건씩 반영, 실패한 건만 다시 쌓고 max-attempts 번 실패하면 버림
+    private void write(Map<Key, Pending> drained) {
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Set<String> users = new HashSet<>();
+        int failed = 0;
+        for (Map.Entry<Key, Pending> entry : drained.entrySet()) {
+            Key key = entry.getKey();
+            Pending p = entry.getValue();
+            try {
+                notificationDigestWriter.upsert(key.userId(), key.roomId(), p.count(),
+                        p.senderName(), p.senderProfileImage(), p.content(), now);
+                users.add(key.userId());
+            } catch (RuntimeException e) {
+                failed++;
+                if (p.attempts() + 1 >= maxAttempts) {
+                    log.error("알림 요약 반영 포기: userId={}, roomId={}, {}건", key.userId(), key.roomId(), p.count(), e);
+                    continue;
+                }
+                // 다음 주기에 다시 시도 (그 사이 쌓인 알림과 합침)
+                Pending retry = p.retried();
+                pending.merge(key, retry, (current, r) -> r.merge(current));
+                log.warn("알림 요약 반영 실패: userId={}, roomId={} ({}회)", key.userId(), key.roomId(), retry.attempts(), e);
+            }
+        }
+
+        for (String userId : users) {
+            try {
+                notificationDigestWriter.trim(userId, maxRooms);
+            } catch (RuntimeException e) {
+                log.warn("알림 요약 정리 실패: userId={}", userId, e);
+            }
+        }
+
+        if (failed > 0) {
+            log.error("알림 요약 반영 실패 {}건 / {}건", failed, drained.size());
+        }
+    }
+
+    private String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    private String preview(String content) {
+        if (content == null || content.length() <= MAX_CONTENT_LENGTH) {
+            return content;
+        }
+        return content.substring(0, MAX_CONTENT_LENGTH) + "…";
+    }
+
+    private record Key(String userId, Long roomId) {}
+
+    private record Pending(int count, String senderName, String senderProfileImage, String content, int attempts) {
+
+        // 건수는 더하고 내용은 나중 알림 기준, 실패 횟수는 유지
+        private Pending merge(Pending later) {
+            return new Pending(count + later.count, later.senderName, later.senderProfileImage, later.content,
+                    Math.max(attempts, later.attempts));
+        }
+
+        private Pending retried() {
+            return new Pending(count, senderName, senderProfileImage, content, attempts + 1);
+        }
+    }
+}
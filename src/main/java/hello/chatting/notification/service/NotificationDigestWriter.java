@@ -0,0 +1,30 @@
+package hello.chatting.notification.service;
+
+import hello.chatting.notification.repository.NotificationDigestRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * 알림 요약 반영을 (사용자, 방) 한 건씩 별도 트랜잭션으로 (한 건이 실패해도 나머지는 반영)
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationDigestWriter {
+
+    private final NotificationDigestRepository notificationDigestRepository;
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void upsert(String userId, Long roomId, int count, String senderName, String senderProfileImage,
+                       String content, LocalDateTime updatedAt) {
+        notificationDigestRepository.upsert(userId, roomId, count, senderName, senderProfileImage, content, updatedAt);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void trim(String userId, int maxRooms) {
+        notificationDigestRepository.trim(userId, maxRooms);
+    }
+}
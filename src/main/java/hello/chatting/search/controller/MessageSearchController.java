@@ -0,0 +1,31 @@
+package hello.chatting.search.controller;
+
+import hello.chatting.search.dto.MessageSearchPageDto;
+import hello.chatting.search.service.MessageSearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.security.Principal;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/chat/search")
+public class MessageSearchController {
+
+    private final MessageSearchService messageSearchService;
+
+    @GetMapping
+    public ResponseEntity<?> search(@RequestParam("keyword") String keyword,
+                                    @RequestParam(value = "page", defaultValue = "0") int page,
+                                    @RequestParam(value = "size", defaultValue = "20") int size,
+                                    Principal principal) throws Exception {
+        MessageSearchPageDto result = messageSearchService.search(principal.getName(), keyword, page, size);
+        return ResponseEntity.ok(result);
+    }
+}
@@ -0,0 +1,15 @@
+package hello.chatting.search.dto;
+
+import java.util.List;
+
+/**
+ * @param totalHits 검색 결과 건수 (1000건 이상이면 하한값)
+ */
+public record MessageSearchPageDto(
+        String keyword,
+        int page,
+        int size,
+        long totalHits,
+        List<MessageSearchResultDto> results
+) {
+}
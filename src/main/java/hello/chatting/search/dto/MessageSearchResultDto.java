@@ -0,0 +1,14 @@
+package hello.chatting.search.dto;
+
+import java.time.LocalDateTime;
+
+public record MessageSearchResultDto(
+        Long id,
+        Long roomId,
+        String sender,
+        String senderName,
+        String message,
+        LocalDateTime createdAt,
+        float score
+) {
+}
@@ -0,0 +1,218 @@
+package hello.chatting.search.index;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.*;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * chat_message.message 전문 검색용 임베디드 역색인 (Lucene)
+ * 메시지 본문은 저장하지 않고 id/roomId/createdAt 만 저장 → 본문은 DB 에서 다시 조회
+ */
+@Slf4j
+@Component
+public class MessageSearchIndex {
+
+    public static final String FIELD_ID = "id";
+    public static final String FIELD_ID_SORT = "idSort";
+    public static final String FIELD_ROOM_ID = "roomId";
+    public static final String FIELD_SENDER = "sender";
+    public static final String FIELD_MESSAGE = "message";
+    public static final String FIELD_CREATED_AT = "createdAt";
+
+    private static final Sort SCORE_THEN_LATEST = new Sort(
+            SortField.FIELD_SCORE,
+            new SortField(FIELD_ID_SORT, SortField.Type.LONG, true)
+    );
+
+    @Value("${chat.search.index-path}")
+    private String indexPath;
+
+    private final Analyzer indexAnalyzer = new NGramAnalyzer(true);
+    private final Analyzer queryAnalyzer = new NGramAnalyzer(false);
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    @PostConstruct
+    public void open() throws IOException {
+        Path path = Paths.get(indexPath);
+        if (!Files.exists(path)) {
+            Files.createDirectories(path);
+        }
+
+        directory = FSDirectory.open(path);
+        IndexWriterConfig config = new IndexWriterConfig(indexAnalyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                .setRAMBufferSizeMB(64);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+        log.info("메시지 검색 인덱스 오픈: {} (문서 {}건)", path.toAbsolutePath(), writer.getDocStats().numDocs);
+    }
+
+    public int numDocs() {
+        return writer.getDocStats().numDocs;
+    }
+
+    /**
+     * 메시지 색인 (같은 id 가 있으면 교체)
+     */
+    public void index(Long id, Long roomId, String sender, String message, LocalDateTime createdAt) {
+        Document doc = new Document();
+        doc.add(new StringField(FIELD_ID, String.valueOf(id), Field.Store.YES));
+        doc.add(new NumericDocValuesField(FIELD_ID_SORT, id));
+        doc.add(new LongPoint(FIELD_ROOM_ID, roomId));
+        doc.add(new StoredField(FIELD_ROOM_ID, roomId));
+        doc.add(new StringField(FIELD_SENDER, sender, Field.Store.NO));
+        doc.add(new TextField(FIELD_MESSAGE, message, Field.Store.NO));
+        doc.add(new LongPoint(FIELD_CREATED_AT, toEpochMilli(createdAt)));
+
+        try {
+            writer.updateDocument(new Term(FIELD_ID, String.valueOf(id)), doc);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void delete(Long id) {
+        try {
+            writer.deleteDocuments(new Term(FIELD_ID, String.valueOf(id)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void deleteAll() throws IOException {
+        writer.deleteAll();
+        writer.commit();
+    }
+
+    /**
+     * 검색어를 어절 단위로 나눠 2-gram 전부 포함(AND)하는 쿼리 생성
+     * 1글자 어절은 원문 그대로 매칭
+     */
+    public Query parse(String keyword) throws IOException {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        boolean hasTerm = false;
+
+        for (String word : keyword.trim().split("\\s+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+
+            List<String> grams = analyze(word);
+            if (grams.isEmpty()) {
+                grams = List.of(word.toLowerCase());
+            }
+
+            for (String gram : grams) {
+                builder.add(new TermQuery(new Term(FIELD_MESSAGE, gram)), BooleanClause.Occur.MUST);
+                hasTerm = true;
+            }
+        }
+
+        return hasTerm ? builder.build() : null;
+    }
+
+    /**
+     * 점수 → 최신순 정렬로 상위 limit 건 조회
+     */
+    public Hits search(Query query, int offset, int limit) throws IOException {
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopFieldDocs topDocs = searcher.search(query, offset + limit, SCORE_THEN_LATEST, true);
+            StoredFields storedFields = searcher.storedFields();
+
+            List<Hit> hits = new ArrayList<>();
+            ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+            for (int i = offset; i < scoreDocs.length; i++) {
+                Document doc = storedFields.document(scoreDocs[i].doc);
+                hits.add(new Hit(
+                        Long.valueOf(doc.get(FIELD_ID)),
+                        doc.getField(FIELD_ROOM_ID).numericValue().longValue(),
+                        scoreDocs[i].score
+                ));
+            }
+
+            return new Hits(topDocs.totalHits.value, hits);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    // 새로 색인된 문서를 검색에 반영 (NRT)
+    @Scheduled(fixedDelayString = "${chat.search.refresh-interval-ms:1000}")
+    public void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.error("검색 인덱스 refresh 실패", e);
+        }
+    }
+
+    // 디스크 반영은 주기적으로 한 번에
+    @Scheduled(fixedDelayString = "${chat.search.commit-interval-ms:30000}")
+    public void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            log.error("검색 인덱스 commit 실패", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        commit();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    public static long toEpochMilli(LocalDateTime dateTime) {
+        LocalDateTime time = dateTime != null ? dateTime : LocalDateTime.now();
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private List<String> analyze(String text) throws IOException {
+        List<String> grams = new ArrayList<>();
+        try (TokenStream stream = queryAnalyzer.tokenStream(FIELD_MESSAGE, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                grams.add(term.toString());
+            }
+            stream.end();
+        }
+        return grams;
+    }
+
+    public record Hit(Long id, Long roomId, float score) {}
+
+    public record Hits(long totalHits, List<Hit> hits) {}
+}
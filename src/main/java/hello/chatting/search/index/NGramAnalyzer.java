@@ -0,0 +1,33 @@
+package hello.chatting.search.index;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.WhitespaceTokenizer;
+import org.apache.lucene.analysis.ngram.NGramTokenFilter;
+
+/**
+ * 한글 형태소 분석기 없이 띄어쓰기 단위(어절) 안에서 2-gram 으로 자르는 분석기
+ * ex) "안녕하세요" → 안녕, 녕하, 하세, 세요
+ *
+ * preserveOriginal = true 이면 2글자 미만/초과 어절 원문도 함께 색인 (색인용)
+ */
+public class NGramAnalyzer extends Analyzer {
+
+    public static final int GRAM_SIZE = 2;
+
+    private final boolean preserveOriginal;
+
+    public NGramAnalyzer(boolean preserveOriginal) {
+        this.preserveOriginal = preserveOriginal;
+    }
+
+    @Override
+    protected TokenStreamComponents createComponents(String fieldName) {
+        Tokenizer tokenizer = new WhitespaceTokenizer();
+        TokenStream stream = new LowerCaseFilter(tokenizer);
+        stream = new NGramTokenFilter(stream, GRAM_SIZE, GRAM_SIZE, preserveOriginal);
+        return new TokenStreamComponents(tokenizer, stream);
+    }
+}
@@ -0,0 +1,300 @@
+package hello.chatting.search.service;
+
+import hello.chatting.chat.domain.ChatMessage;
+import hello.chatting.chat.domain.ChatMessageArchive;
+import hello.chatting.chat.domain.ChatMessageEvent;
+import hello.chatting.chat.repository.ChatArchiveRepository;
+import hello.chatting.chat.repository.ChatMessageEventRepository;
+import hello.chatting.chat.repository.ChatRepository;
+import hello.chatting.chatroom.domain.ChatRoomMember;
+import hello.chatting.chatroom.repository.ChatRoomMemberRepository;
+import hello.chatting.search.dto.MessageSearchPageDto;
+import hello.chatting.search.dto.MessageSearchResultDto;
+import hello.chatting.search.index.MessageSearchIndex;
+import hello.chatting.user.domain.User;
+import hello.chatting.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.Query;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MessageSearchService {
+
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int MAX_RESULT_WINDOW = 1000;
+
+    @Value("${chat.search.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @Value("${chat.search.rebuild-batch-size:1000}")
+    private int rebuildBatchSize;
+
+    private final MessageSearchIndex messageSearchIndex;
+    private final ChatRepository chatRepository;
+    private final ChatArchiveRepository chatArchiveRepository;
+    private final ChatRoomMemberRepository chatRoomMemberRepository;
+    private final UserRepository userRepository;
+    private final ChatMessageEventRepository chatMessageEventRepository;
+
+    /**
+     * 내가 참여중인 채팅방의 메시지 검색 (나간 시점 이전 메시지는 제외)
+     */
+    @Transactional(readOnly = true)
+    public MessageSearchPageDto search(String userId, String keyword, int page, int size) throws Exception {
+        if (!StringUtils.hasText(keyword)) {
+            throw new Exception("검색어를 입력해주세요.");
+        }
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNo = Math.max(0, page);
+        if ((pageNo + 1) * pageSize > MAX_RESULT_WINDOW) {
+            throw new Exception("검색 결과는 최대 " + MAX_RESULT_WINDOW + "건까지 조회할 수 있습니다.");
+        }
+
+        List<ChatRoomMember> members = chatRoomMemberRepository.findByUserIdAndActive(userId, true);
+        Query keywordQuery = messageSearchIndex.parse(keyword);
+        if (members.isEmpty() || keywordQuery == null) {
+            return new MessageSearchPageDto(keyword, pageNo, pageSize, 0, List.of());
+        }
+
+        Query query = new BooleanQuery.Builder()
+                .add(keywordQuery, BooleanClause.Occur.MUST)
+                .add(roomScope(members), BooleanClause.Occur.FILTER)
+                .build();
+
+        MessageSearchIndex.Hits hits = messageSearchIndex.search(query, pageNo * pageSize, pageSize);
+
+        List<Long> ids = hits.hits().stream().map(MessageSearchIndex.Hit::id).toList();
+        Map<Long, MessageSearchResultDto> messages = new HashMap<>();
+        chatRepository.findAllById(ids).forEach(m -> messages.put(m.getId(),
+                new MessageSearchResultDto(m.getId(), m.getRoomId(), m.getSender(), null, m.getMessage(), m.getCreatedAt(), 0)));
+
+        // 최근 테이블에 없으면 보관 테이블에서 조회
+        List<Long> archivedIds = ids.stream().filter(id -> !messages.containsKey(id)).toList();
+        if (!archivedIds.isEmpty()) {
+            chatArchiveRepository.findAllById(archivedIds).forEach(m -> messages.put(m.getId(),
+                    new MessageSearchResultDto(m.getId(), m.getRoomId(), m.getSender(), null, m.getMessage(), m.getCreatedAt(), 0)));
+        }
+
+        // 수정된 메시지는 마지막 수정 본문으로, 삭제된 메시지는 제외 (삭제 시 색인에서도 지움)
+        for (ChatMessageEvent event : chatMessageEventRepository.findEditsAndDeletes(ids)) {
+            MessageSearchResultDto m = messages.get(event.getMessageId());
+            if (m == null) {
+                continue;
+            }
+            if (ChatMessageEvent.DELETE.equals(event.getType())) {
+                messages.remove(event.getMessageId());
+            } else if (ChatMessageEvent.EDIT.equals(event.getType())) {
+                messages.put(m.id(), new MessageSearchResultDto(m.id(), m.roomId(), m.sender(), null, event.getContent(), m.createdAt(), 0));
+            }
+        }
+
+        Set<String> senders = messages.values().stream().map(MessageSearchResultDto::sender).collect(Collectors.toSet());
+        Map<String, String> senderNames = userRepository.findByLoginIdIn(senders).stream()
+                .collect(Collectors.toMap(User::getLoginId, User::getName, (a, b) -> a));
+
+        List<MessageSearchResultDto> results = new ArrayList<>();
+        for (MessageSearchIndex.Hit hit : hits.hits()) {
+            MessageSearchResultDto message = messages.get(hit.id());
+            if (message == null) {
+                continue; // 색인 이후 삭제된 메시지
+            }
+            results.add(new MessageSearchResultDto(
+                    message.id(),
+                    message.roomId(),
+                    message.sender(),
+                    senderNames.getOrDefault(message.sender(), message.sender()),
+                    message.message(),
+                    message.createdAt(),
+                    hit.score()
+            ));
+        }
+
+        return new MessageSearchPageDto(keyword, pageNo, pageSize, hits.totalHits(), results);
+    }
+
+    /**
+     * 저장된 메시지 색인 (ChatService.save 커밋 이후 호출)
+     */
+    public void indexMessage(ChatMessage chatMessage) {
+        index(chatMessage.getId(), chatMessage.getRoomId(), chatMessage.getSender(),
+                chatMessage.getMessage(), chatMessage.getType(), chatMessage.getCreatedAt());
+    }
+
+    /**
+     * 삭제된 메시지 색인 제거
+     */
+    public void removeMessage(Long id) {
+        try {
+            messageSearchIndex.delete(id);
+        } catch (Exception e) {
+            log.error("메시지 색인 삭제 실패 id={}", id, e);
+        }
+    }
+
+    /**
+     * 인덱스가 비어 있거나 chat.search.rebuild-on-startup=true 면 기동 후 백그라운드로 재색인
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfNeeded() {
+        if (!rebuildOnStartup && messageSearchIndex.numDocs() > 0) {
+            return;
+        }
+
+        Thread thread = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                log.error("메시지 검색 인덱스 재색인 실패", e);
+            }
+        }, "message-index-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * chat_message 테이블 전체를 id 순으로 끊어 읽으며 재색인
+     */
+    public void rebuild() throws IOException {
+        long start = System.currentTimeMillis();
+        messageSearchIndex.deleteAll();
+
+        long count = 0L;
+
+        // 보관 테이블
+        long lastId = 0L;
+        while (true) {
+            List<ChatMessageArchive> batch = chatArchiveRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, rebuildBatchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            for (ChatMessageArchive m : batch) {
+                index(m.getId(), m.getRoomId(), m.getSender(), m.getMessage(), m.getType(), m.getCreatedAt());
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+            count += batch.size();
+        }
+
+        // 최근 테이블
+        lastId = 0L;
+        while (true) {
+            List<ChatMessage> batch = chatRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, rebuildBatchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            for (ChatMessage message : batch) {
+                indexMessage(message);
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+            count += batch.size();
+        }
+
+        // 수정된 메시지는 수정 본문으로 다시 색인 (이벤트 오래된 순 → 마지막 수정이 이김)
+        lastId = 0L;
+        while (true) {
+            List<ChatMessageEvent> batch = chatMessageEventRepository.findByTypeAndIdGreaterThanOrderByIdAsc(
+                    ChatMessageEvent.EDIT, lastId, PageRequest.of(0, rebuildBatchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            Map<Long, LocalDateTime> createdAts = findCreatedAts(batch);
+            for (ChatMessageEvent event : batch) {
+                LocalDateTime createdAt = createdAts.get(event.getMessageId());
+                if (createdAt != null) { // 보존 기간이 지나 지워진 메시지는 건너뜀
+                    index(event.getMessageId(), event.getRoomId(), event.getActor(), event.getContent(), "TALK", createdAt);
+                }
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+
+        // 삭제된 메시지 제외 (수정보다 뒤에 반영)
+        lastId = 0L;
+        while (true) {
+            List<ChatMessageEvent> batch = chatMessageEventRepository.findByTypeAndIdGreaterThanOrderByIdAsc(
+                    ChatMessageEvent.DELETE, lastId, PageRequest.of(0, rebuildBatchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            batch.forEach(event -> removeMessage(event.getMessageId()));
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+
+        messageSearchIndex.commit();
+        messageSearchIndex.refresh();
+        log.info("메시지 검색 인덱스 재색인 완료: {}건, {}ms", count, System.currentTimeMillis() - start);
+    }
+
+    // 이벤트 대상 메시지의 작성 시각 (최근 테이블 → 보관 테이블)
+    private Map<Long, LocalDateTime> findCreatedAts(List<ChatMessageEvent> events) {
+        Set<Long> ids = events.stream().map(ChatMessageEvent::getMessageId).collect(Collectors.toSet());
+        Map<Long, LocalDateTime> createdAts = new HashMap<>();
+        chatRepository.findAllById(ids).forEach(m -> createdAts.put(m.getId(), m.getCreatedAt()));
+
+        List<Long> archivedIds = ids.stream().filter(id -> !createdAts.containsKey(id)).toList();
+        if (!archivedIds.isEmpty()) {
+            chatArchiveRepository.findAllById(archivedIds).forEach(m -> createdAts.put(m.getId(), m.getCreatedAt()));
+        }
+        return createdAts;
+    }
+
+    // 입장/퇴장/파일 메시지는 색인 제외
+    private void index(Long id, Long roomId, String sender, String message, String type, LocalDateTime createdAt) {
+        if (id == null || !StringUtils.hasText(message) || "LEAVE".equals(type) || "INVITE".equals(type)) {
+            return;
+        }
+
+        try {
+            messageSearchIndex.index(id, roomId, sender, message, createdAt);
+        } catch (Exception e) {
+            log.error("메시지 색인 실패 id={}", id, e);
+        }
+    }
+
+    // 방별 activeAt 이후 메시지만 보이도록 필터
+    private Query roomScope(List<ChatRoomMember> members) {
+        BooleanQuery.Builder scope = new BooleanQuery.Builder();
+
+        long[] openRooms = members.stream()
+                .filter(m -> m.getActiveAt() == null)
+                .mapToLong(ChatRoomMember::getRoomId)
+                .toArray();
+        if (openRooms.length > 0) {
+            scope.add(LongPoint.newSetQuery(MessageSearchIndex.FIELD_ROOM_ID, openRooms), BooleanClause.Occur.SHOULD);
+        }
+
+        for (ChatRoomMember member : members) {
+            if (member.getActiveAt() == null) {
+                continue;
+            }
+            long cutoff = MessageSearchIndex.toEpochMilli(member.getActiveAt());
+            Query room = new BooleanQuery.Builder()
+                    .add(LongPoint.newExactQuery(MessageSearchIndex.FIELD_ROOM_ID, member.getRoomId()), BooleanClause.Occur.FILTER)
+                    .add(LongPoint.newRangeQuery(MessageSearchIndex.FIELD_CREATED_AT, cutoff + 1, Long.MAX_VALUE), BooleanClause.Occur.FILTER)
+                    .build();
+            scope.add(room, BooleanClause.Occur.SHOULD);
+        }
+
+        return scope.build();
+    }
+}
@@ -1,5 +1,7 @@
 package hello.chatting.user.controller;
 
+import hello.chatting.controller.CustomErrorController;
+import hello.chatting.controller.ViewController;
 import hello.chatting.user.domain.CustomOAuth2User;
 import hello.chatting.user.domain.User;
 import lombok.RequiredArgsConstructor;
@@ -7,10 +9,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Map;
-
+/**
+ * 화면(Thymeleaf) 컨트롤러에만 loginUser 모델 추가
+ * REST / 폴링 요청은 이 advice 를 거치지 않음
+ */
 @Slf4j
-@ControllerAdvice
+@ControllerAdvice(assignableTypes = {ViewController.class, CustomErrorController.class})
 @RequiredArgsConstructor
 public class GlobalControllerAdvice {
 
@@ -20,14 +24,7 @@ public class GlobalControllerAdvice {
             Object principal = authentication.getPrincipal();
 
             if (principal instanceof CustomOAuth2User customUser) {
-                Map<String, Object> response = customUser.getAttributes();
-                return User.builder()
-                        .loginId(customUser.getName())
-                        .email((String) response.get("email"))
-                        .name((String) response.get("name"))
-                        .role((String) response.get("role"))
-                        .profileImage((String) response.get("profileImage"))
-                        .build();
+                return customUser.getLoginUser();
             }
 
         }
@@ -35,4 +32,3 @@ public class GlobalControllerAdvice {
     }
 
 }
-
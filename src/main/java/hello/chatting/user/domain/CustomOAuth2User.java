@@ -9,6 +9,9 @@ import java.util.Map;
 public class CustomOAuth2User extends DefaultOAuth2User {
     private final String loginId;
 
+    // 화면용 로그인 유저 (세션당 한 번 생성, 세션 직렬화 대상 X)
+    private transient User loginUser;
+
     public CustomOAuth2User(Collection<? extends GrantedAuthority> authorities,
                             Map<String, Object> attributes,
                             String nameAttributeKey,
@@ -21,4 +24,18 @@ public class CustomOAuth2User extends DefaultOAuth2User {
     public String getName() {
         return loginId;
     }
+
+    public User getLoginUser() {
+        if (loginUser == null) {
+            Map<String, Object> attributes = getAttributes();
+            loginUser = User.builder()
+                    .loginId(loginId)
+                    .email((String) attributes.get("email"))
+                    .name((String) attributes.get("name"))
+                    .role((String) attributes.get("role"))
+                    .profileImage((String) attributes.get("profileImage"))
+                    .build();
+        }
+        return loginUser;
+    }
 }
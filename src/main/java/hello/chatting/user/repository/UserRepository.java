@@ -1,10 +1,12 @@
 package hello.chatting.user.repository;
 
+import hello.chatting.chatroom.dto.RoomMemberNameDto;
 import hello.chatting.user.domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +14,8 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByLoginId(String loginId);
 
+    List<User> findByLoginIdIn(Collection<String> loginIds);
+
     @Query("""
         SELECT u FROM ChatRoom r
             JOIN ChatRoomMember crm ON r.id = crm.roomId
@@ -19,4 +23,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
         WHERE r.id = :roomId
     """)
     List<User> findChatRoomUser(Long roomId);
+
+    // 여러 방의 멤버 이름을 한 번에 (채팅방 목록 표시 이름)
+    @Query("""
+        SELECT new hello.chatting.chatroom.dto.RoomMemberNameDto(crm.roomId, u.loginId, u.name)
+        FROM ChatRoomMember crm
+            JOIN User u ON crm.userId = u.loginId
+        WHERE crm.roomId IN :roomIds
+    """)
+    List<RoomMemberNameDto> findChatRoomUserNames(Collection<Long> roomIds);
 }
@@ -67,6 +67,7 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
         standardizedAttributes.put("name", name);
         standardizedAttributes.put("profileImage", profileImage);
         standardizedAttributes.put("provider", registrationId);
+        standardizedAttributes.put("role", user.getRole());
 
 
         return new CustomOAuth2User(
@@ -0,0 +1,90 @@
+package hello.chatting.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 종료(배포) 시 STOMP 연결 정리
+ * 1. 새 연결(handshake) 거부
+ * 2. 연결된 클라이언트에게 DRAIN 알림 → 클라이언트는 끊긴 뒤 min~max 사이 랜덤 지연 후 재연결 (다른 노드로 분산)
+ * 3. 처리 중인 수신 메시지(저장 등)가 끝날 때까지 대기
+ * 이후 WebSocket 세션 종료/그레이스풀 셧다운은 스프링 라이프사이클이 진행
+ *
+ * ContextClosedEvent 는 라이프사이클 빈(브로커, WebSocket 핸들러) stop 보다 먼저 발행됨
+ * 브로커 빈은 WebSockConfig(→ HandshakeAdmissionInterceptor → 이 빈) 설정이 끝나야 만들어지므로 ObjectProvider 로 늦게 조회
+ */
+@Slf4j
+@Component
+public class DrainCoordinator {
+
+    public static final String DRAIN_DESTINATION = "/sub/system/drain";
+
+    @Value("${chat.drain.reconnect-min-ms:1000}")
+    private long reconnectMinMs;
+
+    @Value("${chat.drain.reconnect-max-ms:15000}")
+    private long reconnectMaxMs;
+
+    @Value("${chat.drain.await-ms:5000}")
+    private long awaitMs;
+
+    private final ObjectProvider<SimpMessageSendingOperations> messagingTemplate;
+    private final ObjectProvider<ThreadPoolTaskExecutor> inboundExecutor;
+
+    private volatile boolean draining;
+
+    public DrainCoordinator(ObjectProvider<SimpMessageSendingOperations> messagingTemplate,
+                            @Qualifier("clientInboundChannelExecutor") ObjectProvider<ThreadPoolTaskExecutor> inboundExecutor) {
+        this.messagingTemplate = messagingTemplate;
+        this.inboundExecutor = inboundExecutor;
+    }
+
+    public boolean isDraining() {
+        return draining;
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void drain() {
+        if (draining) {
+            return;
+        }
+        draining = true;
+        log.info("STOMP drain 시작: 새 연결 거부, 클라이언트 재연결 안내");
+
+        messagingTemplate.getObject().convertAndSend(DRAIN_DESTINATION, Map.of(
+                "reconnectMinMs", reconnectMinMs,
+                "reconnectMaxMs", reconnectMaxMs
+        ));
+
+        awaitInboundIdle();
+    }
+
+    // 수신 채널 스레드가 모두 놀 때까지 (최대 awaitMs)
+    private void awaitInboundIdle() {
+        ThreadPoolTaskExecutor executor = inboundExecutor.getObject();
+        long deadline = System.currentTimeMillis() + awaitMs;
+        while (System.currentTimeMillis() < deadline) {
+            if (executor.getActiveCount() == 0
+                    && executor.getThreadPoolExecutor().getQueue().isEmpty()) {
+                log.info("STOMP drain: 처리 중인 메시지 없음");
+                return;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        log.warn("STOMP drain: {}ms 안에 처리 중인 메시지가 끝나지 않음", awaitMs);
+    }
+}
@@ -0,0 +1,77 @@
+package hello.chatting.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.Map;
+
+/**
+ * /ws-stomp handshake 수 제한 (노드 재시작 직후 재연결이 한꺼번에 몰리는 것 방지)
+ * - 노드 전체 초당 handshake 수를 토큰 버킷으로 제한, 넘으면 503 + Retry-After
+ * - drain 중이면 모두 거부 → 클라이언트는 다른 노드로 재연결
+ * - 거부 건수는 chat.admission.rejected{reason} 로 노출
+ */
+@Slf4j
+@Component
+public class HandshakeAdmissionInterceptor implements HandshakeInterceptor {
+
+    private static final String NODE_KEY = "node";
+
+    private final DrainCoordinator drainCoordinator;
+    private final TokenBucketLimiter limiter;
+    private final boolean enabled;
+    private final Counter drainRejected;
+
+    public HandshakeAdmissionInterceptor(DrainCoordinator drainCoordinator,
+                                         MeterRegistry registry,
+                                         @Value("${chat.admission.enabled:true}") boolean enabled,
+                                         @Value("${chat.admission.handshakes-per-second:50}") double rate,
+                                         @Value("${chat.admission.burst:100}") int burst) {
+        this.drainCoordinator = drainCoordinator;
+        this.enabled = enabled;
+        this.limiter = new TokenBucketLimiter(rate, burst);
+
+        FunctionCounter.builder("chat.admission.rejected", limiter, TokenBucketLimiter::rejectedCount)
+                .tag("reason", "rate")
+                .description("거부한 WebSocket handshake 수")
+                .register(registry);
+        this.drainRejected = Counter.builder("chat.admission.rejected")
+                .tag("reason", "draining")
+                .description("거부한 WebSocket handshake 수")
+                .register(registry);
+    }
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        if (drainCoordinator.isDraining()) {
+            drainRejected.increment();
+            return reject(response, "draining");
+        }
+        if (enabled && !limiter.tryAcquire(NODE_KEY)) {
+            return reject(response, "rate");
+        }
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+
+    private boolean reject(ServerHttpResponse response, String reason) {
+        log.debug("handshake 거부: {}", reason);
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set("Retry-After", "1");
+        return false;
+    }
+}
@@ -0,0 +1,160 @@
+package hello.chatting.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.websocket.Session;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.NativeWebSocketSession;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 세션별 송신 큐 + 느린 클라이언트 처리 정책
+ * - 큐가 soft-limit 을 넘으면 타이핑 프레임부터 버림 (coalesce-typing 이면 타이핑은 항상 마지막 것만)
+ * - hard-limit 을 넘거나 한 프레임 전송이 send-stuck-ms 이상 걸리면 연결 종료 (재연결 후 마지막 순번부터 이어받기)
+ *   전송이 멈춘 세션은 새 프레임이 오지 않아도 워치독이 watchdog-interval-ms 마다 찾아서 종료
+ *   Tomcat 블로킹 전송 제한 시간(기본 20초)도 send-stuck-ms 로 맞춤 → 막힌 전송이 ws-sender 스레드를 그 이상 잡지 않음
+ * - 전송은 전용 스레드풀에서 세션당 한 스레드씩 → 느린 세션이 방 전체 fan-out 을 막지 않음
+ */
+@Slf4j
+@Component
+public class OutboundBackpressure implements WebSocketHandlerDecoratorFactory {
+
+    @Getter
+    @Value("${chat.outbound.soft-limit-bytes:262144}")
+    private long softLimitBytes;
+
+    @Getter
+    @Value("${chat.outbound.hard-limit-bytes:524288}")
+    private long hardLimitBytes;
+
+    @Getter
+    @Value("${chat.outbound.send-stuck-ms:5000}")
+    private long sendStuckMs;
+
+    @Getter
+    @Value("${chat.outbound.coalesce-typing:true}")
+    private boolean coalesceTyping;
+
+    // Tomcat 이 세션 user properties 에서 읽는 블로킹 전송 제한 시간 (ms, Long)
+    static final String BLOCKING_SEND_TIMEOUT = "org.apache.tomcat.websocket.BLOCKING_SEND_TIMEOUT";
+
+    private final ConcurrentHashMap<String, SlowConsumerSession> sessions = new ConcurrentHashMap<>();
+    private final ThreadPoolTaskExecutor sender;
+    private final ThreadPoolTaskExecutor closer;   // 전송 스레드가 모두 막혀 있어도 종료는 되도록 따로
+    private final Counter droppedTyping;
+    private final Counter coalescedTyping;
+    private final Counter disconnected;
+
+    public OutboundBackpressure(MeterRegistry registry,
+                                @Value("${chat.outbound.sender-threads:8}") int senderThreads) {
+        this.sender = new ThreadPoolTaskExecutor();
+        this.sender.setCorePoolSize(senderThreads);
+        this.sender.setMaxPoolSize(senderThreads);
+        this.sender.setThreadNamePrefix("ws-sender-");
+        this.sender.initialize();
+
+        this.closer = new ThreadPoolTaskExecutor();
+        this.closer.setCorePoolSize(2);
+        this.closer.setMaxPoolSize(2);
+        this.closer.setThreadNamePrefix("ws-closer-");
+        this.closer.initialize();
+
+        this.droppedTyping = Counter.builder("chat.outbound.dropped")
+                .tag("reason", "typing")
+                .description("밀린 세션에서 버린 프레임 수")
+                .register(registry);
+        this.coalescedTyping = Counter.builder("chat.outbound.dropped")
+                .tag("reason", "coalesced")
+                .description("밀린 세션에서 버린 프레임 수")
+                .register(registry);
+        this.disconnected = Counter.builder("chat.outbound.disconnected")
+                .description("느려서 종료한 세션 수")
+                .register(registry);
+        Gauge.builder("chat.outbound.slow.sessions", sessions,
+                        s -> s.values().stream().filter(SlowConsumerSession::isSlow).count())
+                .description("송신 큐가 soft-limit 을 넘은 세션 수")
+                .register(registry);
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                limitBlockingSend(session);
+                SlowConsumerSession decorated = new SlowConsumerSession(session, OutboundBackpressure.this);
+                sessions.put(session.getId(), decorated);
+                super.afterConnectionEstablished(decorated);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                SlowConsumerSession decorated = sessions.remove(session.getId());
+                if (decorated != null) {
+                    decorated.discard();
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    // WebSocket 전송만 해당 (SockJS HTTP 전송은 네이티브 세션이 없음)
+    private void limitBlockingSend(WebSocketSession session) {
+        if (WebSocketSessionDecorator.unwrap(session) instanceof NativeWebSocketSession nativeSession) {
+            Session wsSession = nativeSession.getNativeSession(Session.class);
+            if (wsSession != null) {
+                wsSession.getUserProperties().put(BLOCKING_SEND_TIMEOUT, sendStuckMs);
+            }
+        }
+    }
+
+    // 전송이 멈춘 세션 종료 (조용한 방에서는 sendMessage 검사가 다시 돌지 않으므로)
+    @Scheduled(fixedDelayString = "${chat.outbound.watchdog-interval-ms:1000}")
+    public void closeStuckSessions() {
+        long now = System.currentTimeMillis();
+        sessions.values().forEach(session -> {
+            if (session.markStuck(now)) {
+                disconnect(session);
+            }
+        });
+    }
+
+    void execute(Runnable task) {
+        sender.execute(task);
+    }
+
+    void droppedTyping() {
+        droppedTyping.increment();
+    }
+
+    void coalesced() {
+        coalescedTyping.increment();
+    }
+
+    void disconnect(SlowConsumerSession session) {
+        disconnected.increment();
+        log.warn("느린 클라이언트 연결 종료: session={}, user={}", session.getId(),
+                session.getPrincipal() != null ? session.getPrincipal().getName() : null);
+        closer.execute(session::closeWithResumeHint);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdown();
+        closer.shutdown();
+    }
+}
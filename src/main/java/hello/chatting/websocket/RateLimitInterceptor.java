@@ -0,0 +1,136 @@
+package hello.chatting.websocket;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * STOMP SEND 요청 속도 제한 (clientInboundChannel)
+ * - /pub/chat/message, /pub/chat/typing, /pub/alarm 별로 사용자 단위 토큰 버킷
+ * - 수정/삭제는 메시지 버킷, 반응은 별도 버킷 (반응은 짧은 시간에 몰려서 누르는 경우가 많음)
+ * - /pub/chat/message 는 방 단위 버킷도 함께 적용 (여러 사용자가 한 방에 몰아 보내는 경우)
+ *   방 한도에 걸리면 사용자 토큰은 돌려줌 → 붐비는 방에서 버려진 메시지가 사용자 한도를 깎지 않음
+ * - 버린 건수는 chat.ratelimit.rejected{bucket} 로 노출
+ * - 한도를 넘은 프레임은 버림 → 메시지는 클라이언트가 ack 를 못 받아 같은 clientMsgId 로 재전송
+ */
+@Slf4j
+@Component
+public class RateLimitInterceptor implements ChannelInterceptor {
+
+    private static final String MESSAGE = "/pub/chat/message";
+    private static final String TYPING = "/pub/chat/typing";
+    private static final String ALARM = "/pub/alarm";
+    private static final String EDIT = "/pub/chat/edit";
+    private static final String DELETE = "/pub/chat/delete";
+    private static final String REACT = "/pub/chat/react";
+
+    @Value("${chat.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${chat.rate-limit.idle-seconds:120}")
+    private long idleSeconds;
+
+    private final TokenBucketLimiter userMessage;
+    private final TokenBucketLimiter userTyping;
+    private final TokenBucketLimiter userAlarm;
+    private final TokenBucketLimiter userReaction;
+    private final TokenBucketLimiter roomMessage;
+    private final Map<String, TokenBucketLimiter> buckets = new LinkedHashMap<>();
+
+    public RateLimitInterceptor(
+            MeterRegistry registry,
+            @Value("${chat.rate-limit.user.message-per-second:5}") double messageRate,
+            @Value("${chat.rate-limit.user.message-burst:10}") int messageBurst,
+            @Value("${chat.rate-limit.user.typing-per-second:5}") double typingRate,
+            @Value("${chat.rate-limit.user.typing-burst:10}") int typingBurst,
+            @Value("${chat.rate-limit.user.alarm-per-second:5}") double alarmRate,
+            @Value("${chat.rate-limit.user.alarm-burst:20}") int alarmBurst,
+            @Value("${chat.rate-limit.user.reaction-per-second:5}") double reactionRate,
+            @Value("${chat.rate-limit.user.reaction-burst:20}") int reactionBurst,
+            @Value("${chat.rate-limit.room.message-per-second:30}") double roomRate,
+            @Value("${chat.rate-limit.room.message-burst:60}") int roomBurst) {
+        this.userMessage = new TokenBucketLimiter(messageRate, messageBurst);
+        this.userTyping = new TokenBucketLimiter(typingRate, typingBurst);
+        this.userAlarm = new TokenBucketLimiter(alarmRate, alarmBurst);
+        this.userReaction = new TokenBucketLimiter(reactionRate, reactionBurst);
+        this.roomMessage = new TokenBucketLimiter(roomRate, roomBurst);
+
+        buckets.put("user.message", userMessage);
+        buckets.put("user.typing", userTyping);
+        buckets.put("user.alarm", userAlarm);
+        buckets.put("user.reaction", userReaction);
+        buckets.put("room.message", roomMessage);
+        buckets.forEach((bucket, limiter) -> FunctionCounter.builder("chat.ratelimit.rejected", limiter, TokenBucketLimiter::rejectedCount)
+                .tag("bucket", bucket)
+                .description("요청 속도 제한 초과로 버린 STOMP 프레임 수")
+                .register(registry));
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (!enabled) {
+            return message;
+        }
+
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.SEND || accessor.getDestination() == null) {
+            return message;
+        }
+
+        String destination = accessor.getDestination();
+        String userKey = userKey(accessor);
+
+        boolean allowed = switch (destination) {
+            case MESSAGE -> userMessage.tryAcquire(userKey) && allowRoom(userKey, message.getPayload());
+            case TYPING -> userTyping.tryAcquire(userKey);
+            case ALARM -> userAlarm.tryAcquire(userKey);
+            case EDIT, DELETE -> userMessage.tryAcquire(userKey);
+            case REACT -> userReaction.tryAcquire(userKey);
+            default -> true;
+        };
+
+        if (!allowed) {
+            log.debug("요청 속도 제한 초과: {} {}", userKey, destination);
+            return null;
+        }
+        return message;
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdle() {
+        long idleNanos = TimeUnit.SECONDS.toNanos(idleSeconds);
+        buckets.values().forEach(limiter -> limiter.evictIdle(idleNanos));
+    }
+
+    // 방 한도에 걸리면 이미 받은 사용자 토큰은 돌려줌
+    private boolean allowRoom(String userKey, Object payload) {
+        if (!(payload instanceof byte[] body)) {
+            return true;
+        }
+        String roomId = StompFrames.findRoomId(body);
+        if (roomId == null || roomMessage.tryAcquire(roomId)) {
+            return true;
+        }
+        userMessage.refund(userKey);
+        return false;
+    }
+
+    private String userKey(StompHeaderAccessor accessor) {
+        Principal user = accessor.getUser();
+        return user != null ? user.getName() : "session:" + accessor.getSessionId();
+    }
+}
@@ -0,0 +1,36 @@
+package hello.chatting.websocket;
+
+import hello.chatting.config.ReadYourWritesGuard;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+
+/**
+ * clientInboundChannel 처리 스레드에는 SecurityContext 가 없음
+ * → 메시지를 처리하는 동안 연결 사용자를 ReadYourWritesGuard 에 묶어 둠
+ *   (수정/삭제/반응 쓰기도 기록되고, 방금 쓴 사용자의 재연결 이어받기 같은 읽기는 primary 로)
+ */
+@Component
+@RequiredArgsConstructor
+public class ReadYourWritesInterceptor implements ExecutorChannelInterceptor {
+
+    private final ReadYourWritesGuard readYourWritesGuard;
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        Principal user = SimpMessageHeaderAccessor.getUser(message.getHeaders());
+        readYourWritesGuard.bind(user != null ? user.getName() : null);
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        readYourWritesGuard.clear();
+    }
+}
@@ -0,0 +1,505 @@
+package hello.chatting.websocket;
+
+import hello.chatting.metrics.MessageTrace;
+import hello.chatting.metrics.MessageTracer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.AbstractMessageChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * /sub/chat/room/{roomId} 전용 방 단위 분산 전송 (simple broker 대신)
+ * - 방은 roomId 해시로 고정된 워커(단일 스레드)에 배정, 워커가 자기 방의 구독자 목록을 소유 → 잠금 없음
+ * - 한 방의 메시지는 항상 같은 워커가 순서대로 전송 → 방 안 순서 보장
+ *   저장된 메시지/변경분은 방 순번(seq) 순서로 전송: 커밋 후 publish 가 스레드마다 늦고 빠를 수 있어
+ *   앞 순번이 올 때까지 reorder-timeout-ms 동안 붙잡아 두고, 그래도 안 오면 건너뜀 (빈 순번은 클라이언트가 재연결 요청으로 채움)
+ * - 구독자가 많은 방은 구독자를 나눠 fan-out 스레드풀에서 병렬 전송, 다음 메시지 전에 모두 끝날 때까지 대기
+ * - 전송은 SubProtocolWebSocketHandler 에 바로 전달 (세션 송신 큐는 OutboundBackpressure)
+ *   clientOutboundChannel 을 거치지 않으므로 그 채널의 인터셉터를 직접 적용하고, 큐 길이는 chat.dispatch.queue 로 따로 노출
+ * - 워커 큐는 queue-capacity 로 제한
+ *   저장된 메시지/변경분(publish), 구독/해제는 버리지 않고 자리가 날 때까지 기다림 (빠진 프레임을 클라이언트가 알 수 없으므로)
+ *   입력 중 표시(publishTyping)만 offer-timeout-ms 까지 기다린 뒤 버림 (chat.dispatch.dropped)
+ *
+ * 구독/해제/연결 종료는 세션 이벤트로 반영 (구독 권한에서 거부된 SUBSCRIBE 는 이벤트 없음)
+ */
+@Slf4j
+@Component
+public class RoomDispatcher {
+
+    private static final String ROOM_PREFIX = "/sub/chat/room/";
+    private static final int MAX_ORDERED_ROOMS = 10_000; // 워커별 순번 상태를 들고 있는 방 수
+
+    @Value("${chat.dispatch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${chat.dispatch.parallel-threshold:500}")
+    private int parallelThreshold;
+
+    @Value("${chat.dispatch.chunk-size:250}")
+    private int chunkSize;
+
+    @Value("${chat.dispatch.offer-timeout-ms:1000}")
+    private long offerTimeoutMs;
+
+    @Value("${chat.dispatch.reorder-timeout-ms:500}")
+    private long reorderTimeoutMs;
+
+    private final ObjectProvider<SimpMessagingTemplate> messagingTemplate;
+    private final ObjectProvider<WebSocketHandler> subProtocolWebSocketHandler;
+    private final ObjectProvider<AbstractMessageChannel> clientOutboundChannel;
+    private final Worker[] workers;
+    private final ExecutorService fanout;
+    private final Counter dropped;
+
+    // sessionId → (subscriptionId → roomId), 연결 종료 시 어느 워커에 알릴지
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Long>> sessions = new ConcurrentHashMap<>();
+
+    public RoomDispatcher(ObjectProvider<SimpMessagingTemplate> messagingTemplate,
+                          @Qualifier("subProtocolWebSocketHandler") ObjectProvider<WebSocketHandler> subProtocolWebSocketHandler,
+                          @Qualifier("clientOutboundChannel") ObjectProvider<AbstractMessageChannel> clientOutboundChannel,
+                          MeterRegistry registry,
+                          @Value("${chat.dispatch.workers:0}") int workerCount,
+                          @Value("${chat.dispatch.fanout-threads:0}") int fanoutThreads,
+                          @Value("${chat.dispatch.queue-capacity:10000}") int queueCapacity) {
+        this.messagingTemplate = messagingTemplate;
+        this.subProtocolWebSocketHandler = subProtocolWebSocketHandler;
+        this.clientOutboundChannel = clientOutboundChannel;
+
+        int cpus = Runtime.getRuntime().availableProcessors();
+        this.workers = new Worker[workerCount > 0 ? workerCount : cpus];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(i, queueCapacity);
+            Gauge.builder("chat.dispatch.queue", workers[i].queue, BlockingQueue::size)
+                    .tag("worker", String.valueOf(i))
+                    .description("방 전송 워커 큐에 쌓인 작업 수")
+                    .register(registry);
+        }
+        this.fanout = Executors.newFixedThreadPool(fanoutThreads > 0 ? fanoutThreads : cpus, named("room-fanout-"));
+        this.dropped = Counter.builder("chat.dispatch.dropped")
+                .description("워커 큐가 꽉 차서 버린 입력 중 표시 수")
+                .register(registry);
+    }
+
+    /**
+     * 방 구독자에게 전송 (payload 변환도 워커 스레드에서)
+     * 워커 큐가 꽉 차면 자리가 날 때까지 기다림 → 저장된 메시지/변경분은 버리지 않음
+     * @param seq 방 순번 (저장되지 않은 프레임은 null → 순서 맞추지 않고 바로 전송)
+     */
+    public void publish(Long roomId, Long seq, Object payload, MessageTrace trace) {
+        if (!enabled) {
+            sendToBroker(roomId, payload, trace);
+            return;
+        }
+        if (trace != null) {
+            trace.markBroker();
+        }
+        Worker worker = workerOf(roomId);
+        if (seq == null) {
+            worker.put(() -> worker.send(roomId, payload, trace));
+        } else {
+            worker.put(() -> worker.sendInOrder(roomId, seq, () -> worker.send(roomId, payload, trace)));
+        }
+    }
+
+    /**
+     * 입력 중 표시 전송 (저장되지 않는 프레임) → 워커 큐가 offer-timeout-ms 동안 꽉 차 있으면 버림
+     */
+    public void publishTyping(Long roomId, Object payload) {
+        if (!enabled) {
+            sendToBroker(roomId, payload, null);
+            return;
+        }
+        Worker worker = workerOf(roomId);
+        if (!worker.offer(() -> worker.send(roomId, payload, null), offerTimeoutMs)) {
+            dropped.increment();
+            log.debug("방 전송 워커 큐가 꽉 차서 입력 중 표시를 버림: room={}", roomId);
+        }
+    }
+
+    /**
+     * 앞 순번을 reorder-timeout-ms 넘게 기다린 프레임 전송 (그 방에 새 프레임이 오지 않아도 풀리도록)
+     */
+    @Scheduled(fixedDelay = 100)
+    public void releaseHeld() {
+        if (!enabled) {
+            return;
+        }
+        for (Worker worker : workers) {
+            if (worker.heldRooms > 0) {
+                worker.offer(worker::releaseExpired, 0);
+            }
+        }
+    }
+
+    public int subscriberCount(Long roomId) {
+        return workerOf(roomId).count(roomId);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Long roomId = roomId(accessor.getDestination());
+        String sessionId = accessor.getSessionId();
+        String subscriptionId = accessor.getSubscriptionId();
+        if (roomId == null || sessionId == null || subscriptionId == null) {
+            return;
+        }
+
+        sessions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>()).put(subscriptionId, roomId);
+        Subscriber subscriber = new Subscriber(sessionId, subscriptionId);
+        Worker worker = workerOf(roomId);
+        worker.put(() -> worker.add(roomId, subscriber));
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Map<String, Long> subs = sessions.get(accessor.getSessionId());
+        if (subs == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+
+        Long roomId = subs.remove(accessor.getSubscriptionId());
+        if (roomId != null) {
+            String key = accessor.getSessionId() + "/" + accessor.getSubscriptionId();
+            Worker worker = workerOf(roomId);
+            worker.put(() -> worker.remove(roomId, key));
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, Long> subs = sessions.remove(event.getSessionId());
+        if (subs == null) {
+            return;
+        }
+        subs.forEach((subscriptionId, roomId) -> {
+            String key = event.getSessionId() + "/" + subscriptionId;
+            Worker worker = workerOf(roomId);
+            worker.put(() -> worker.remove(roomId, key));
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Worker worker : workers) {
+            worker.executor.shutdown();
+        }
+        fanout.shutdown();
+    }
+
+    private void sendToBroker(Long roomId, Object payload, MessageTrace trace) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        if (trace != null) {
+            accessor.setHeader(MessageTracer.TRACE_HEADER, trace);
+        }
+        accessor.setLeaveMutable(true);
+        messagingTemplate.getObject().convertAndSend(ROOM_PREFIX + roomId, payload, accessor.getMessageHeaders());
+    }
+
+    private Worker workerOf(Long roomId) {
+        return workers[Math.floorMod(roomId.hashCode(), workers.length)];
+    }
+
+    private static Long roomId(String destination) {
+        if (destination == null || !destination.startsWith(ROOM_PREFIX)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(destination.substring(ROOM_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory named(String prefix) {
+        AtomicInteger seq = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + seq.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // 방 순번 전송 상태 (워커 스레드에서만 사용)
+    private static final class RoomOrder {
+        private long next;                                        // 다음에 보낼 순번
+        private final TreeMap<Long, Runnable> held = new TreeMap<>(); // 앞 순번을 기다리는 프레임
+        private long heldSince;
+
+        private RoomOrder(long next) {
+            this.next = next;
+        }
+    }
+
+    private record Subscriber(String sessionId, String subscriptionId) {
+        String key() {
+            return sessionId + "/" + subscriptionId;
+        }
+    }
+
+    /**
+     * 방 구독자 목록의 유일한 writer (rooms 는 이 워커 스레드에서만 변경)
+     */
+    private final class Worker {
+        private final BlockingQueue<Runnable> queue;
+        private final ThreadPoolExecutor executor;
+        private final Map<Long, LinkedHashMap<String, Subscriber>> rooms = new HashMap<>();
+        private final Map<Long, List<Subscriber>> snapshots = new HashMap<>();
+        private final ConcurrentHashMap<Long, Integer> counts = new ConcurrentHashMap<>(); // 다른 스레드 조회용
+        private final Map<Long, RoomOrder> orders = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, RoomOrder> eldest) {
+                return size() > MAX_ORDERED_ROOMS && eldest.getValue().held.isEmpty();
+            }
+        };
+        private volatile int heldRooms; // 붙잡아 둔 프레임이 있는 방 수 (releaseHeld 조회용)
+
+        private Worker(int index, int capacity) {
+            this.queue = new LinkedBlockingQueue<>(capacity);
+            this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, queue, named("room-dispatch-" + index + "-"));
+            this.executor.prestartAllCoreThreads(); // 큐에 직접 넣으므로 스레드를 미리 띄워 둠
+        }
+
+        // 입력 중 표시: 꽉 차면 timeoutMs 까지 기다림, 그래도 자리가 없으면 false
+        private boolean offer(Runnable task, long timeoutMs) {
+            try {
+                return !executor.isShutdown() && queue.offer(guarded(task), timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        // 메시지 전송/구독자 목록 변경: 버리지 않고 자리가 날 때까지 기다림
+        private void put(Runnable task) {
+            if (executor.isShutdown()) {
+                return;
+            }
+            try {
+                queue.put(guarded(task));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // 작업 하나가 실패해도 워커 스레드는 계속 돎
+        private Runnable guarded(Runnable task) {
+            return () -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.error("방 전송 워커 작업 실패", e);
+                }
+            };
+        }
+
+        // 처음 보는 방은 받은 순번부터, 이미 지나간 순번은 늦게라도 바로 전송 (클라이언트가 받은 순번은 건너뜀)
+        private void sendInOrder(Long roomId, long seq, Runnable send) {
+            RoomOrder order = orders.computeIfAbsent(roomId, id -> new RoomOrder(seq));
+            if (seq < order.next) {
+                send.run();
+                return;
+            }
+            if (order.held.isEmpty()) {
+                order.heldSince = System.currentTimeMillis();
+                heldRooms++;
+            }
+            order.held.put(seq, send);
+            release(order, false);
+        }
+
+        private void releaseExpired() {
+            long now = System.currentTimeMillis();
+            for (RoomOrder order : orders.values()) {
+                if (!order.held.isEmpty() && now - order.heldSince >= reorderTimeoutMs) {
+                    log.debug("방 순번 {} 을 기다리다 건너뜀", order.next);
+                    release(order, true);
+                }
+            }
+        }
+
+        // 다음 순번부터 이어지는 만큼 전송, force 면 빈 순번을 건너뛰고 모두 전송
+        private void release(RoomOrder order, boolean force) {
+            boolean progressed = false;
+            while (!order.held.isEmpty() && (force || order.held.firstKey() == order.next)) {
+                Map.Entry<Long, Runnable> first = order.held.pollFirstEntry();
+                order.next = first.getKey() + 1;
+                progressed = true;
+                try {
+                    first.getValue().run();
+                } catch (RuntimeException e) {
+                    log.error("방 전송 워커 작업 실패", e);
+                }
+            }
+            if (order.held.isEmpty()) {
+                heldRooms--;
+            } else if (progressed) {
+                order.heldSince = System.currentTimeMillis();
+            }
+        }
+
+        private void add(Long roomId, Subscriber subscriber) {
+            LinkedHashMap<String, Subscriber> subscribers = rooms.computeIfAbsent(roomId, id -> new LinkedHashMap<>());
+            subscribers.put(subscriber.key(), subscriber);
+            changed(roomId, subscribers);
+        }
+
+        private void remove(Long roomId, String key) {
+            LinkedHashMap<String, Subscriber> subscribers = rooms.get(roomId);
+            if (subscribers == null || subscribers.remove(key) == null) {
+                return;
+            }
+            if (subscribers.isEmpty()) {
+                rooms.remove(roomId);
+            }
+            changed(roomId, subscribers);
+        }
+
+        private int count(Long roomId) {
+            return counts.getOrDefault(roomId, 0);
+        }
+
+        private void changed(Long roomId, Map<String, Subscriber> subscribers) {
+            snapshots.remove(roomId);
+            if (subscribers.isEmpty()) {
+                counts.remove(roomId);
+            } else {
+                counts.put(roomId, subscribers.size());
+            }
+        }
+
+        private void send(Long roomId, Object payload, MessageTrace trace) {
+            LinkedHashMap<String, Subscriber> subscribers = rooms.get(roomId);
+            if (subscribers == null || subscribers.isEmpty()) {
+                return;
+            }
+
+            List<Subscriber> targets = snapshots.computeIfAbsent(roomId, id -> List.copyOf(subscribers.values()));
+            byte[] body;
+            try {
+                body = toBytes(payload);
+            } catch (RuntimeException e) {
+                log.error("방 메시지 변환 실패: room={}", roomId, e);
+                return;
+            }
+
+            String destination = ROOM_PREFIX + roomId;
+            if (targets.size() < parallelThreshold) {
+                deliver(targets, destination, body, trace);
+                return;
+            }
+
+            // 큰 방: 나눠서 병렬 전송, 다음 메시지 전에 모두 끝날 때까지 대기 (세션별 순서 유지)
+            List<CompletableFuture<Void>> chunks = new ArrayList<>();
+            for (int from = 0; from < targets.size(); from += chunkSize) {
+                List<Subscriber> chunk = targets.subList(from, Math.min(from + chunkSize, targets.size()));
+                chunks.add(CompletableFuture.runAsync(() -> deliver(chunk, destination, body, trace), fanout));
+            }
+            CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+        }
+    }
+
+    private void deliver(List<Subscriber> subscribers, String destination, byte[] body, MessageTrace trace) {
+        MessageHandler handler = (MessageHandler) subProtocolWebSocketHandler.getObject();
+        AbstractMessageChannel channel = clientOutboundChannel.getObject();
+        for (Subscriber subscriber : subscribers) {
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setDestination(destination);
+            accessor.setSessionId(subscriber.sessionId());
+            accessor.setSubscriptionId(subscriber.subscriptionId());
+            accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            if (trace != null) {
+                accessor.setHeader(MessageTracer.TRACE_HEADER, trace);
+            }
+            accessor.setLeaveMutable(true);
+            Message<byte[]> message = MessageBuilder.createMessage(body, accessor.getMessageHeaders());
+
+            try {
+                handle(channel, handler, message);
+            } catch (RuntimeException e) {
+                log.debug("구독자 전송 실패: session={}", subscriber.sessionId(), e);
+            }
+        }
+    }
+
+    // clientOutboundChannel 이 하는 것과 같은 순서로 인터셉터 적용 (preSend → beforeHandle → 전송 → afterMessageHandled)
+    private static void handle(AbstractMessageChannel channel, MessageHandler handler, Message<?> message) {
+        List<ChannelInterceptor> interceptors = channel.getInterceptors();
+        for (ChannelInterceptor interceptor : interceptors) {
+            message = interceptor.preSend(message, channel);
+            if (message == null) {
+                return;
+            }
+        }
+        for (ChannelInterceptor interceptor : interceptors) {
+            if (interceptor instanceof ExecutorChannelInterceptor executorInterceptor) {
+                message = executorInterceptor.beforeHandle(message, channel, handler);
+                if (message == null) {
+                    return;
+                }
+            }
+        }
+
+        Exception failure = null;
+        try {
+            handler.handleMessage(message);
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            for (ChannelInterceptor interceptor : interceptors) {
+                if (interceptor instanceof ExecutorChannelInterceptor executorInterceptor) {
+                    executorInterceptor.afterMessageHandled(message, channel, handler, failure);
+                }
+            }
+        }
+    }
+
+    private byte[] toBytes(Object payload) {
+        Message<?> converted = messagingTemplate.getObject().getMessageConverter().toMessage(payload, (MessageHeaders) null);
+        if (converted == null || !(converted.getPayload() instanceof byte[] bytes)) {
+            throw new IllegalStateException("payload 를 변환할 수 없습니다: " + payload.getClass());
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,212 @@
+package hello.chatting.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * 세션별 송신 큐 (OutboundBackpressure 참고)
+ * sendMessage 는 큐에 넣고 바로 반환, 전송은 세션당 한 스레드씩 순서대로 → 느린 클라이언트가 outbound 스레드를 잡지 않음
+ */
+@Slf4j
+class SlowConsumerSession extends WebSocketSessionDecorator {
+
+    static final CloseStatus RESUME_HINT = CloseStatus.SESSION_NOT_RELIABLE.withReason("slow consumer: reconnect and resume");
+
+    private static final String TYPING_MARK = "\"type\":\"TYPING\"";
+
+    private final OutboundBackpressure policy;
+    private final ArrayDeque<Frame> queue = new ArrayDeque<>();
+    private long queuedBytes;
+    private boolean draining;
+    private long sendStartedAt;     // 전송 중인 프레임 시작 시각 (0 이면 전송 중 아님)
+    private volatile boolean closing;
+
+    SlowConsumerSession(WebSocketSession delegate, OutboundBackpressure policy) {
+        super(delegate);
+        this.policy = policy;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (closing) {
+            return;
+        }
+
+        Frame frame = Frame.of(message);
+        boolean startDrain = false;
+        boolean disconnect = false;
+
+        synchronized (this) {
+            if (frame.typingKey != null) {
+                // 같은 방/보낸 사람의 타이핑 프레임은 마지막 것만 남김
+                if (policy.isCoalesceTyping() && removeQueuedTyping(frame.typingKey)) {
+                    policy.coalesced();
+                }
+                // 밀려 있으면 타이핑 프레임부터 버림
+                if (queuedBytes + frame.size > policy.getSoftLimitBytes()) {
+                    policy.droppedTyping();
+                    return;
+                }
+            }
+
+            queue.addLast(frame);
+            queuedBytes += frame.size;
+
+            long now = System.currentTimeMillis();
+            if (queuedBytes > policy.getHardLimitBytes()
+                    || (sendStartedAt > 0 && now - sendStartedAt > policy.getSendStuckMs())) {
+                closing = true;
+                disconnect = true;
+            } else if (!draining) {
+                draining = true;
+                startDrain = true;
+            }
+        }
+
+        if (disconnect) {
+            policy.disconnect(this);
+        } else if (startDrain) {
+            policy.execute(this::drain);
+        }
+    }
+
+    /**
+     * 전송 중인 프레임이 send-stuck-ms 넘게 끝나지 않으면 종료 대상으로 표시 (새 프레임이 안 와도 워치독이 확인)
+     * @return 이번에 표시했으면 true (이미 종료 중이면 false)
+     */
+    boolean markStuck(long now) {
+        synchronized (this) {
+            if (closing || sendStartedAt == 0 || now - sendStartedAt <= policy.getSendStuckMs()) {
+                return false;
+            }
+            closing = true;
+            return true;
+        }
+    }
+
+    boolean isSlow() {
+        synchronized (this) {
+            return queuedBytes > policy.getSoftLimitBytes();
+        }
+    }
+
+    private boolean markClosing() {
+        synchronized (this) {
+            if (closing) {
+                return false;
+            }
+            closing = true;
+            return true;
+        }
+    }
+
+    void closeWithResumeHint() {
+        synchronized (this) {
+            queue.clear();
+            queuedBytes = 0;
+        }
+        try {
+            getDelegate().close(RESUME_HINT);
+        } catch (IOException e) {
+            log.debug("느린 세션 종료 실패: {}", getId(), e);
+        }
+    }
+
+    void discard() {
+        closing = true;
+        synchronized (this) {
+            queue.clear();
+            queuedBytes = 0;
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Frame frame;
+            synchronized (this) {
+                frame = queue.pollFirst();
+                if (frame == null || closing) {
+                    draining = false;
+                    sendStartedAt = 0;
+                    return;
+                }
+                sendStartedAt = System.currentTimeMillis();
+            }
+
+            try {
+                getDelegate().sendMessage(frame.message);
+            } catch (SocketTimeoutException e) {
+                // 블로킹 전송 제한 시간(send-stuck-ms) 초과 → 워치독보다 먼저 알게 된 경우에도 재연결 안내 후 종료
+                if (markClosing()) {
+                    policy.disconnect(this);
+                }
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.debug("세션 전송 실패: {}", getId(), e);
+                discard();
+                return;
+            } finally {
+                synchronized (this) {
+                    queuedBytes -= frame.size;
+                }
+            }
+        }
+    }
+
+    private boolean removeQueuedTyping(String typingKey) {
+        Iterator<Frame> it = queue.iterator();
+        while (it.hasNext()) {
+            Frame queued = it.next();
+            if (typingKey.equals(queued.typingKey)) {
+                it.remove();
+                queuedBytes -= queued.size;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Frame(WebSocketMessage<?> message, int size, String typingKey) {
+
+        static Frame of(WebSocketMessage<?> message) {
+            if (message instanceof TextMessage text) {
+                String payload = text.getPayload();
+                String typingKey = payload.contains(TYPING_MARK) ? typingKey(payload) : null;
+                return new Frame(message, text.getPayloadLength(), typingKey);
+            }
+            return new Frame(message, message.getPayloadLength(), null);
+        }
+
+        // destination + sender (STOMP MESSAGE 프레임 헤더/본문에서)
+        private static String typingKey(String payload) {
+            return header(payload, "destination:") + "|" + jsonString(payload, "\"sender\":\"");
+        }
+
+        private static String header(String payload, String name) {
+            int start = payload.indexOf(name);
+            if (start < 0) {
+                return "";
+            }
+            int end = payload.indexOf('\n', start);
+            return payload.substring(start + name.length(), end < 0 ? payload.length() : end);
+        }
+
+        private static String jsonString(String payload, String key) {
+            int start = payload.indexOf(key);
+            if (start < 0) {
+                return "";
+            }
+            int end = payload.indexOf('"', start + key.length());
+            return payload.substring(start + key.length(), end < 0 ? payload.length() : end);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package hello.chatting.websocket;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * STOMP CONNECT(또는 STOMP) 시 Authorization: Bearer {ws 토큰} 검증 → 연결 사용자 지정
+ * 토큰이 없거나 틀리면 연결 거부 (핸드셰이크의 HTTP 세션 사용자를 그대로 쓰지 않음)
+ * 이후 프레임의 Principal, /user/queue/** 라우팅은 여기서 지정한 사용자 기준
+ */
+@Component
+@RequiredArgsConstructor
+public class StompAuthInterceptor implements ChannelInterceptor {
+
+    private static final String AUTHORIZATION = "Authorization";
+    private static final String BEARER = "Bearer ";
+
+    private final WsTokenService wsTokenService;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || !isConnect(accessor.getCommand())) {
+            return message;
+        }
+
+        String header = accessor.getFirstNativeHeader(AUTHORIZATION);
+        String token = header != null && header.startsWith(BEARER) ? header.substring(BEARER.length()) : null;
+
+        String loginId = wsTokenService.verify(token)
+                .orElseThrow(() -> new MessageDeliveryException("유효하지 않은 토큰입니다."));
+
+        accessor.setUser(new UsernamePasswordAuthenticationToken(
+                loginId, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        return message;
+    }
+
+    // STOMP 1.2 의 STOMP 프레임도 CONNECT 와 같이 처리됨
+    private boolean isConnect(StompCommand command) {
+        return command == StompCommand.CONNECT || command == StompCommand.STOMP;
+    }
+}
@@ -0,0 +1,87 @@
+package hello.chatting.websocket;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * STOMP 프레임 본문 유틸 (인터셉터에서 JSON 파싱 없이 필요한 값만 읽음)
+ */
+public final class StompFrames {
+
+    private static final byte[] ROOM_ID_KEY = "\"roomId\"".getBytes(StandardCharsets.US_ASCII);
+
+    private StompFrames() {
+    }
+
+    /**
+     * 본문 JSON 을 파싱하지 않고 최상위 "roomId": 뒤의 숫자만 읽음
+     * - 문자열 값 안의 "roomId" 나 중첩 객체의 roomId 는 건너뜀
+     */
+    public static String findRoomId(byte[] body) {
+        int depth = 0;
+        for (int i = 0; i < body.length; i++) {
+            byte b = body[i];
+            if (b == '"') {
+                int end = stringEnd(body, i + 1);
+                if (end < 0) {
+                    return null;
+                }
+                if (depth == 1 && startsWith(body, i, ROOM_ID_KEY)) {
+                    int colon = skipSpaces(body, end + 1);
+                    if (colon < body.length && body[colon] == ':') {
+                        return readNumber(body, colon + 1);
+                    }
+                }
+                i = end;
+            } else if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                depth--;
+            }
+        }
+        return null;
+    }
+
+    private static String readNumber(byte[] body, int from) {
+        int i = skipSpaces(body, from);
+        if (i < body.length && body[i] == '"') {
+            i++;
+        }
+        int digits = i;
+        while (i < body.length && body[i] >= '0' && body[i] <= '9') {
+            i++;
+        }
+        return i > digits ? new String(body, digits, i - digits, StandardCharsets.US_ASCII) : null;
+    }
+
+    // 닫는 따옴표 위치 (이스케이프 문자는 건너뜀), 없으면 -1
+    private static int stringEnd(byte[] body, int from) {
+        for (int i = from; i < body.length; i++) {
+            if (body[i] == '\\') {
+                i++;
+            } else if (body[i] == '"') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipSpaces(byte[] body, int from) {
+        int i = from;
+        while (i < body.length && (body[i] == ' ' || body[i] == '\t' || body[i] == '\n' || body[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean startsWith(byte[] body, int offset, byte[] key) {
+        if (offset + key.length > body.length) {
+            return false;
+        }
+        for (int j = 0; j < key.length; j++) {
+            if (body[offset + j] != key[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,84 @@
+package hello.chatting.websocket;
+
+import hello.chatting.chatroom.service.ChatRoomMemberCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+
+/**
+ * 구독 가능한 destination 허용 목록
+ * - /sub/chat/room/{roomId} : 그 방 멤버만 (멤버십 캐시 조회, DB 조회 없음)
+ * - /sub/system/drain       : 누구나
+ * - /user/**                : 본인 세션 큐로만 풀리므로 허용
+ * simple broker 는 패턴 구독(/sub/**)을 받아주므로 와일드카드/변수는 모두 거부, 목록 밖 destination(/queue/** 직접 구독 등)도 거부
+ * 캐시는 방 생성/나가기/재입장 커밋 후 해당 유저만 비워짐
+ * 권한이 없으면 SUBSCRIBE 프레임만 버림 (연결은 유지)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SubscriptionAuthInterceptor implements ChannelInterceptor {
+
+    private static final String ROOM_PREFIX = "/sub/chat/room/";
+    private static final String USER_PREFIX = "/user/";
+
+    private final ChatRoomMemberCache chatRoomMemberCache;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.SUBSCRIBE) {
+            return message;
+        }
+
+        String destination = accessor.getDestination();
+        Principal user = accessor.getUser();
+        if (!allowed(user, destination)) {
+            log.warn("구독 거부: user={}, destination={}", user != null ? user.getName() : null, destination);
+            return null;
+        }
+        return message;
+    }
+
+    private boolean allowed(Principal user, String destination) {
+        if (user == null || destination == null || hasPattern(destination)) {
+            return false;
+        }
+        if (destination.equals(DrainCoordinator.DRAIN_DESTINATION) || destination.startsWith(USER_PREFIX)) {
+            return true;
+        }
+
+        Long roomId = parseRoomId(destination);
+        return roomId != null && chatRoomMemberCache.canSubscribe(user.getName(), roomId);
+    }
+
+    private boolean hasPattern(String destination) {
+        return destination.indexOf('*') >= 0 || destination.indexOf('?') >= 0 || destination.indexOf('{') >= 0;
+    }
+
+    // /sub/chat/room/{숫자} 만 방 id, 그 외는 null
+    static Long parseRoomId(String destination) {
+        if (!destination.startsWith(ROOM_PREFIX) || destination.length() == ROOM_PREFIX.length()) {
+            return null;
+        }
+        for (int i = ROOM_PREFIX.length(); i < destination.length(); i++) {
+            char c = destination.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+        }
+        try {
+            return Long.valueOf(destination.substring(ROOM_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
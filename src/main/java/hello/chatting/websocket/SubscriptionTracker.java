@@ -0,0 +1,95 @@
+package hello.chatting.websocket;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.AbstractSubProtocolEvent;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * STOMP 세션/구독 현황 (세션 이벤트로 직접 집계)
+ * 방(destination)별 구독자 수를 O(1) 로 조회 → 브로드캐스트 fan-out 측정용
+ * 구독 권한 인터셉터에서 거부된 SUBSCRIBE 는 이벤트가 발행되지 않아 집계되지 않음
+ */
+@Component
+public class SubscriptionTracker {
+
+    // sessionId → (subscriptionId → destination)
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, String>> sessions = new ConcurrentHashMap<>();
+    // destination → 구독 수
+    private final ConcurrentHashMap<String, AtomicInteger> destinations = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriptions = new AtomicInteger();
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        sessions.computeIfAbsent(sessionId(event), id -> new ConcurrentHashMap<>());
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (destination == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+
+        String previous = sessions.computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), destination);
+        if (previous != null) {
+            decrement(previous);
+        }
+        destinations.computeIfAbsent(destination, d -> new AtomicInteger()).incrementAndGet();
+        subscriptions.incrementAndGet();
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subs = sessions.get(accessor.getSessionId());
+        if (subs == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+
+        String destination = subs.remove(accessor.getSubscriptionId());
+        if (destination != null) {
+            decrement(destination);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subs = sessions.remove(event.getSessionId());
+        if (subs != null) {
+            subs.values().forEach(this::decrement);
+        }
+    }
+
+    public int subscriberCount(String destination) {
+        AtomicInteger count = destinations.get(destination);
+        return count != null ? count.get() : 0;
+    }
+
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    public int subscriptionCount() {
+        return subscriptions.get();
+    }
+
+    private void decrement(String destination) {
+        subscriptions.decrementAndGet();
+        destinations.computeIfPresent(destination, (d, count) -> count.decrementAndGet() <= 0 ? null : count);
+    }
+
+    private String sessionId(AbstractSubProtocolEvent event) {
+        return SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+    }
+}
@@ -0,0 +1,75 @@
+package hello.chatting.websocket;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 키별 토큰 버킷 (락 없이 AtomicLong CAS 하나로 처리)
+ * - 버킷 상태를 "다음 토큰이 생기는 이론상 시각(TAT)" 하나로 표현 (GCRA)
+ * - 초당 ratePerSecond 개 충전, 최대 burst 개까지 연속 허용
+ * - 버킷이 가득 찬 채로 idle 시간이 지나면 evictIdle 에서 제거
+ */
+public class TokenBucketLimiter {
+
+    private final long intervalNanos;   // 토큰 하나 충전 간격
+    private final long burstNanos;      // burst 개 만큼 앞당겨 쓸 수 있는 시간
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+
+    public TokenBucketLimiter(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("ratePerSecond, burst 는 0 보다 커야 합니다.");
+        }
+        this.intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.burstNanos = intervalNanos * burst;
+    }
+
+    public boolean tryAcquire(String key) {
+        long now = System.nanoTime();
+        AtomicLong tat = buckets.get(key);
+        if (tat == null) {
+            tat = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + intervalNanos;
+            if (next - now > burstNanos) {
+                rejected.increment();
+                return false;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * tryAcquire 로 받은 토큰 하나 돌려주기 (뒤이은 다른 제한에 걸려 요청이 버려진 경우)
+     * 그 사이 버킷이 제거됐으면 이미 가득 찬 상태이므로 할 일 없음
+     */
+    public void refund(String key) {
+        AtomicLong tat = buckets.get(key);
+        if (tat != null) {
+            tat.addAndGet(-intervalNanos);
+        }
+    }
+
+    /**
+     * idleNanos 이상 사용하지 않아 버킷이 다시 가득 찬 키 제거
+     * 제거 직후 같은 키가 들어오면 가득 찬 새 버킷으로 시작 → 한도는 그대로 유지됨
+     */
+    public void evictIdle(long idleNanos) {
+        long now = System.nanoTime();
+        buckets.values().removeIf(tat -> now - tat.get() > idleNanos);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+}
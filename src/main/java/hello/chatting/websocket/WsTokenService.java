@@ -0,0 +1,95 @@
+package hello.chatting.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * STOMP CONNECT 용 짧은 서명 토큰 (HMAC-SHA256)
+ * 형식: base64url(loginId) . 만료(epoch 초) . base64url(서명)
+ * 메시징 노드는 같은 secret 만 공유하면 HTTP 세션 없이 검증 가능
+ */
+@Slf4j
+@Component
+public class WsTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final long ttlSeconds;
+
+    public WsTokenService(@Value("${chat.ws-token.secret:}") String secret,
+                          @Value("${chat.ws-token.ttl-seconds:300}") long ttlSeconds) {
+        byte[] keyBytes;
+        if (StringUtils.hasText(secret)) {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        } else {
+            // secret 미설정 → 노드마다 다른 키 (단일 노드 / 개발용)
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            log.warn("chat.ws-token.secret 미설정: 임시 키 사용 (여러 노드에서는 같은 secret 필요)");
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public String issue(String loginId) {
+        long expiresAt = System.currentTimeMillis() / 1000 + ttlSeconds;
+        String payload = ENCODER.encodeToString(loginId.getBytes(StandardCharsets.UTF_8)) + "." + expiresAt;
+        return payload + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    /**
+     * 서명/만료 확인 후 loginId
+     */
+    public Optional<String> verify(String token) {
+        if (!StringUtils.hasText(token)) {
+            return Optional.empty();
+        }
+
+        int signatureDot = token.lastIndexOf('.');
+        int expiresDot = token.lastIndexOf('.', signatureDot - 1);
+        if (expiresDot <= 0) {
+            return Optional.empty();
+        }
+
+        try {
+            String payload = token.substring(0, signatureDot);
+            byte[] signature = DECODER.decode(token.substring(signatureDot + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                return Optional.empty();
+            }
+
+            long expiresAt = Long.parseLong(token.substring(expiresDot + 1, signatureDot));
+            if (expiresAt < System.currentTimeMillis() / 1000) {
+                return Optional.empty();
+            }
+
+            return Optional.of(new String(DECODER.decode(token.substring(0, expiresDot)), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) { // base64, 숫자 형식 오류
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package hello.chatting.websocket.controller;
+
+import hello.chatting.websocket.WsTokenService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.security.Principal;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class WsTokenController {
+
+    private final WsTokenService wsTokenService;
+
+    // STOMP 연결/재연결 직전에 발급
+    @GetMapping("/ws/token")
+    public ResponseEntity<?> token(Principal principal) {
+        return ResponseEntity.ok(Map.of("token", wsTokenService.issue(principal.getName())));
+    }
+}
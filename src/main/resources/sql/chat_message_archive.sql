@@ -0,0 +1,22 @@
+-- 오래된 메시지 보관 테이블 (MessageTieringJob)
+-- PK (room_id, id) → 방 단위로 id 순서대로 모여 저장되어 방 이력 조회 시 순차 읽기
+CREATE TABLE IF NOT EXISTS chat_message_archive
+(
+    id          BIGINT       NOT NULL,
+    room_id     BIGINT       NOT NULL,
+    sender      VARCHAR(255) NOT NULL,
+    message     VARCHAR(255),
+    type        VARCHAR(255),
+    file_url    VARCHAR(255),
+    file_name   VARCHAR(255),
+    file_type   VARCHAR(255),
+    created_at  DATETIME(6),
+    archived_at DATETIME(6)  NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    PRIMARY KEY (room_id, id),
+    UNIQUE KEY uk_chat_message_archive_id (id)
+) ENGINE = InnoDB
+  ROW_FORMAT = COMPRESSED
+  KEY_BLOCK_SIZE = 8;
+
+-- 보관 대상 조회용
+CREATE INDEX IF NOT EXISTS idx_chat_message_created_at ON chat_message (created_at);
@@ -0,0 +1,7 @@
+-- 클라이언트 메시지 id (재전송 중복 제거, MessageDedupWindow 를 벗어난 재전송은 유니크 키로 걸러짐)
+-- client_msg_id 가 NULL 인 기존 메시지는 유니크 검사 대상 아님
+ALTER TABLE chat_message
+    ADD COLUMN IF NOT EXISTS client_msg_id VARCHAR(36) NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_chat_message_sender_client_msg_id
+    ON chat_message (sender, client_msg_id);
@@ -0,0 +1,32 @@
+-- 메시지 수정/삭제/반응 이벤트 (원본 chat_message 는 그대로 두고 조회 시 합쳐서 보여줌)
+CREATE TABLE IF NOT EXISTS chat_message_event
+(
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    message_id BIGINT       NOT NULL,
+    room_id    BIGINT       NOT NULL,
+    actor      VARCHAR(255) NOT NULL,
+    type       VARCHAR(16)  NOT NULL, -- EDIT / DELETE / REACTION / UNREACTION
+    content    VARCHAR(255),          -- 수정된 본문 / 반응 이모지
+    created_at DATETIME(6)  NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    PRIMARY KEY (id),
+    KEY idx_chat_message_event_message_id (message_id, id)
+) ENGINE = InnoDB;
+
+-- 누가 어떤 반응을 눌렀는지 (한 사람이 같은 이모지는 한 번만)
+CREATE TABLE IF NOT EXISTS chat_message_reaction
+(
+    message_id BIGINT       NOT NULL,
+    user_id    VARCHAR(255) NOT NULL,
+    emoji      VARCHAR(16)  NOT NULL,
+    created_at DATETIME(6)  NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    PRIMARY KEY (message_id, user_id, emoji)
+) ENGINE = InnoDB;
+
+-- 메시지별 반응 집계 (ReactionCounter 가 메모리에서 모은 증감을 주기적으로 한 번에 반영)
+CREATE TABLE IF NOT EXISTS chat_message_reaction_count
+(
+    message_id BIGINT      NOT NULL,
+    emoji      VARCHAR(16) NOT NULL,
+    cnt        BIGINT      NOT NULL DEFAULT 0,
+    PRIMARY KEY (message_id, emoji)
+) ENGINE = InnoDB;
@@ -0,0 +1,16 @@
+-- 접속해 있지 않은 사용자에게 온 알림을 방 단위로 합쳐 둔 요약 (NotificationDigestService)
+-- 사용자 × 방 당 한 행 → 알림이 몰려도 행 수는 늘지 않고 message_count 만 증가
+CREATE TABLE IF NOT EXISTS chat_notification_digest
+(
+    id                        BIGINT       NOT NULL AUTO_INCREMENT,
+    user_id                   VARCHAR(255) NOT NULL,
+    room_id                   BIGINT       NOT NULL,
+    message_count             INT          NOT NULL DEFAULT 0,
+    last_sender_name          VARCHAR(255),
+    last_sender_profile_image VARCHAR(255),
+    last_content              VARCHAR(255),
+    updated_at                DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_chat_notification_digest_user_room (user_id, room_id),
+    KEY idx_chat_notification_digest_updated_at (updated_at)
+) ENGINE = InnoDB;
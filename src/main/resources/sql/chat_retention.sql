@@ -0,0 +1,3 @@
+-- 보존 기간 삭제 (MessageRetentionJob)
+-- 보관 테이블도 created_at 으로 대상 조회 / 기간별 파일 메시지 조회 (고아 첨부파일 정리)
+CREATE INDEX IF NOT EXISTS idx_chat_message_archive_created_at ON chat_message_archive (created_at);
@@ -0,0 +1,18 @@
+-- 방 순번 (메시지/수정/삭제/반응 한 건마다 1씩 증가, 재연결은 seq > 마지막으로 받은 순번)
+-- 쓰기 트랜잭션이 커밋까지 방 행을 잠그므로 같은 방은 순번 순서대로 커밋되고, 롤백되면 순번도 되돌아가 빈 번호가 없음
+CREATE TABLE IF NOT EXISTS chat_room_seq
+(
+    room_id BIGINT NOT NULL,
+    seq     BIGINT NOT NULL,
+    PRIMARY KEY (room_id)
+) ENGINE = InnoDB;
+
+-- 기존 행은 NULL (이어받기 대상 아님 → 범위에 걸리면 방 다시 불러오기)
+ALTER TABLE chat_message
+    ADD COLUMN IF NOT EXISTS seq BIGINT NULL;
+
+ALTER TABLE chat_message_event
+    ADD COLUMN IF NOT EXISTS seq BIGINT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_chat_message_room_seq ON chat_message (room_id, seq);
+CREATE INDEX IF NOT EXISTS idx_chat_message_event_room_seq ON chat_message_event (room_id, seq);
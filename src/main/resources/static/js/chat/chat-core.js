@@ -1,15 +1,56 @@
 var stompClient = null;
 var chatSubscription = null;
 var alarmSubscription = null;
+var resumeSubscription = null;
 var roomId= null;
 const typingUsers = new Map(); // { sender: timestamp }
 const typingTimeout = 1000;
 
+// 재연결 / 이어받기
+let reconnectAttempt = 0;
+let drainReconnectDelay = null; // 서버 종료(drain) 안내를 받으면 이 지연 후 재연결
+let lastSeq = null;           // 현재 방에서 반영한 마지막 방 순번 (이력 첫 페이지의 X-Room-Seq 부터, 재연결/빈 순번 이어받기 커서)
+let syncPending = false;      // 이력/이어받기 응답 전까지 실시간 메세지는 잠시 모아둠
+let heldMessages = [];
+let resumeTimer = null;
+const drawnMessageIds = new Set();
+const resumeRetryDelay = 1000; // 이어받기 응답이 빈 순번을 아직 못 채우면(복제 지연) 이만큼 뒤 다시 요청
 
+// 전송 후 ack 를 못 받은 메세지 (clientMsgId → payload), 같은 clientMsgId 로 재전송
+const pendingMessages = new Map();
+const ackTimeout = 5000;
+const maxSendAttempts = 5;
+
+
+/**
+ * ws 토큰 발급 후 연결 (CONNECT 헤더로 인증, 토큰 유효시간이 짧아 연결할 때마다 발급)
+ */
 function connect() {
+  $.get('/ws/token')
+    .done(function(res) {
+      // 세션이 끊기면 로그인 페이지(HTML)가 돌아옴
+      if (!res || !res.token) {
+        window.location.href = '/login';
+        return;
+      }
+      connectStomp(res.token);
+    })
+    .fail(function(xhr) {
+      if (xhr.status === 401 || xhr.status === 403) {
+        window.location.href = '/login';
+        return;
+      }
+      scheduleReconnect();
+    });
+}
+
+function connectStomp(token) {
   var socket = new SockJS('/ws-stomp');
   stompClient = Stomp.over(socket);
-  stompClient.connect({}, function(frame) {
+  stompClient.connect({ Authorization: 'Bearer ' + token }, function(frame) {
+    const reconnected = reconnectAttempt > 0;
+    reconnectAttempt = 0;
+
     // 알림 수신
     alarmSubscription = stompClient.subscribe("/user/queue/alarm", function(message) {
       const alarm = JSON.parse(message.body);
@@ -19,9 +60,209 @@ function connect() {
 
       showChattingList(); // TODO: 더 좋은 방향이 있을지 생각해 봐야 함
     });
+
+    // 접속하지 않은 동안 온 알림 요약 (접속할 때마다 한 번 요청)
+    stompClient.subscribe("/user/queue/notification/digest", function(message) {
+      showNotificationDigest(JSON.parse(message.body));
+    });
+    stompClient.send("/pub/notification/digest", {}, "{}");
+
+    // 서버 종료 안내 → 끊기면 안내받은 범위 안에서 랜덤 지연 후 재연결 (한꺼번에 몰리지 않도록)
+    stompClient.subscribe("/sub/system/drain", function(message) {
+      const drain = JSON.parse(message.body);
+      drainReconnectDelay = drain.reconnectMinMs + Math.random() * (drain.reconnectMaxMs - drain.reconnectMinMs);
+    });
+
+    // 재연결 시 놓친 메세지 수신
+    resumeSubscription = stompClient.subscribe("/user/queue/chat/resume", function(message) {
+      onResume(JSON.parse(message.body));
+    });
+
+    // 전송 확인 → 재전송 대상에서 제거
+    stompClient.subscribe("/user/queue/chat/ack", function(message) {
+      pendingMessages.delete(JSON.parse(message.body).clientMsgId);
+    });
+
+    // 끊기기 전에 보던 방이 있으면 다시 구독하고 놓친 메세지만 받아옴
+    if (reconnected && roomId) {
+      subscribeRoom(roomId);
+      requestResume();
+    }
+    if (reconnected) {
+      resendPendingMessages();
+    }
+  }, function(error) {
+    scheduleReconnect();
+  });
+}
+
+/**
+ * 알림 요약 → 가장 최근 방 기준으로 토스트 한 번
+ */
+function showNotificationDigest(digest) {
+  if (!digest || digest.totalCount === 0) return;
+
+  const latest = digest.rooms[0];
+  toastAlert({
+    senderName: latest.lastSenderName,
+    senderProfileImage: latest.lastSenderProfileImage,
+    roomId: latest.roomId,
+    content: digest.roomCount > 1
+        ? `${digest.roomCount}개 채팅방에 ${digest.totalCount}개의 새 메시지`
+        : `${digest.totalCount}개의 새 메시지: ${latest.lastContent || ''}`
+  });
+  showChattingList();
+}
+
+/**
+ * 연결이 끊기면 지수 백오프 + 랜덤 지연 후 재연결 (동시에 몰리지 않도록)
+ */
+function scheduleReconnect() {
+  if (drainReconnectDelay !== null) {
+    const delay = drainReconnectDelay;
+    drainReconnectDelay = null;
+    reconnectAttempt = 1;
+    setTimeout(connect, delay);
+    return;
+  }
+
+  const base = Math.min(30000, 1000 * Math.pow(2, reconnectAttempt));
+  const delay = base / 2 + Math.random() * base / 2;
+  reconnectAttempt++;
+  setTimeout(connect, delay);
+}
+
+function newClientMsgId() {
+  if (window.crypto && crypto.randomUUID) {
+    return crypto.randomUUID();
+  }
+  return Date.now().toString(36) + '-' + Math.random().toString(36).slice(2, 12);
+}
+
+/**
+ * 메세지 전송 + ack 가 없으면 같은 clientMsgId 로 재전송 (서버에서 중복 제거)
+ */
+function submitMessage(payload) {
+  pendingMessages.set(payload.clientMsgId, { payload: payload, attempts: 0 });
+  sendPendingMessage(payload.clientMsgId);
+}
+
+function sendPendingMessage(clientMsgId) {
+  const pending = pendingMessages.get(clientMsgId);
+  if (!pending) return;
+
+  if (pending.attempts >= maxSendAttempts) {
+    pendingMessages.delete(clientMsgId);
+    basicAlert({ icon: 'error', text: "메세지 전송에 실패했습니다." });
+    return;
+  }
+
+  // 끊겨 있으면 재연결 후 resendPendingMessages 에서 보냄
+  if (!stompClient || !stompClient.connected) return;
+
+  pending.attempts++;
+  stompClient.send("/pub/chat/message", {}, JSON.stringify(pending.payload));
+  setTimeout(function() { sendPendingMessage(clientMsgId); }, ackTimeout);
+}
+
+function resendPendingMessages() {
+  pendingMessages.forEach(function(pending, clientMsgId) {
+    sendPendingMessage(clientMsgId);
   });
 }
 
+/**
+ * 마지막으로 반영한 방 순번 이후 것만 요청 (응답 전까지 실시간 프레임은 모아둠)
+ */
+function requestResume(delay) {
+  if (lastSeq === null) {
+    messageOutput(roomId);
+    return;
+  }
+
+  syncPending = true;
+  clearTimeout(resumeTimer);
+  resumeTimer = setTimeout(function() {
+    stompClient.send("/pub/chat/resume", {}, JSON.stringify({
+      roomId: roomId,
+      sender: loginUser.loginId,
+      afterSeq: lastSeq
+    }));
+  }, delay || 0);
+}
+
+function onResume(resume) {
+  if (resume.roomId !== roomId || lastSeq === null) return;
+
+  // 놓친 게 너무 많으면 전체 다시 불러오기
+  if (resume.reload) {
+    messageOutput(roomId);
+    return;
+  }
+
+  // 놓친 메세지 → 놓친 수정/삭제/반응 (순번 순서, 이미 반영한 순번은 건너뜀)
+  const afterSeq = lastSeq;
+  resume.messages.forEach(receiveRoomMessage);
+  resume.deltas.filter(delta => delta.seq > afterSeq).forEach(applyMessageDelta);
+
+  const progressed = resume.lastSeq > afterSeq;
+  if (progressed) lastSeq = resume.lastSeq;
+  releaseHeldMessages(progressed ? 0 : resumeRetryDelay);
+}
+
+// 모아둔 실시간 프레임 순번 순서로 반영 (또 빈 순번이 있으면 다시 이어받기)
+function releaseHeldMessages(retryDelay) {
+  const held = heldMessages.sort((a, b) => (a.seq || 0) - (b.seq || 0));
+  syncPending = false;
+  heldMessages = [];
+  held.forEach(msg => receiveRoomFrame(msg, retryDelay));
+}
+
+/**
+ * 방 실시간 프레임 한 건 처리 → 바로 반영했으면 true
+ * 이미 반영한 순번은 건너뛰고, 순번이 비면 모아두고 그 사이를 이어받음
+ */
+function receiveRoomFrame(msg, retryDelay) {
+  if (syncPending) {
+    heldMessages.push(msg);
+    return false;
+  }
+
+  if (msg.seq != null && lastSeq !== null) {
+    if (msg.seq <= lastSeq) return false;
+    if (msg.seq > lastSeq + 1) {
+      heldMessages.push(msg);
+      requestResume(retryDelay);
+      return false;
+    }
+  }
+  if (msg.seq != null) lastSeq = msg.seq;
+
+  isMessageDelta(msg) ? applyMessageDelta(msg) : receiveRoomMessage(msg);
+  return true;
+}
+
+/**
+ * 방 메세지 한 건 그리기 (이미 그린 id 는 건너뜀)
+ */
+function receiveRoomMessage(msg) {
+  if (msg.id) {
+    if (drawnMessageIds.has(msg.id)) return;
+    drawnMessageIds.add(msg.id);
+  }
+
+  removeTypingBubble(msg.sender);
+  drawMessage(msg);
+}
+
+function resetRoomState() {
+  lastSeq = null;
+  syncPending = false;
+  heldMessages = [];
+  clearTimeout(resumeTimer);
+  drawnMessageIds.clear();
+}
+
 $(document).ready(function() {
 
   $(document).on('keydown', '#messageInput', function(event) {
@@ -54,6 +295,13 @@ $(document).ready(function() {
     sendTyping();
   });
 
+  // 맨 위까지 스크롤하면 이전 메세지 불러오기 (scroll 은 버블링 되지 않아 캡처로 받음)
+  document.addEventListener('scroll', function(event) {
+    if (event.target.id === 'chatBox' && event.target.scrollTop === 0) {
+      loadOlderMessages();
+    }
+  }, true);
+
   // 주기적으로 타이핑 타임아웃 체크
   setInterval(() => {
     const now = Date.now();
@@ -16,8 +16,6 @@ function sendAlarmToUser(roomId, content) {
         const alarmMessage = {
           receiver: user.userId,
           content: content,
-          senderName: loginUser.name,
-          senderProfileImage: loginUser.profileImage,
           roomId: roomId,
         };
 
@@ -11,13 +11,14 @@ function sendMessage() {
   const msgInputVal = $('#messageInput').val().trim();
   if (!msgInputVal) return;
 
-  stompClient.send("/pub/chat/message", {}, JSON.stringify({
+  submitMessage({
     type: 'TALK',
     roomId: roomId,
     sender: loginUser.loginId,
     senderName: loginUser.name,
-    message: msgInputVal
-  }));
+    message: msgInputVal,
+    clientMsgId: newClientMsgId()
+  });
 
   $('#messageInput').val("").css('height', '46px');
   showChattingList();
@@ -26,32 +27,45 @@ function sendMessage() {
 }
 
 
+const reactionEmojis = ['👍', '❤️', '😂'];
+
 /**
  * 타입별로 메세지 그려주기
+ * $target 을 넘기면 그 안에 그림 (이전 메세지 페이지를 위로 붙일 때)
  */
-function drawMessage(message) {
+function drawMessage(message, $target) {
 
   switch (message.type) {
     case 'LEAVE':
     case 'INVITE':
-      renderEventMsg(message);
+      renderEventMsg(message, $target);
       break;
 
     case 'FILE':
-      renderChatMsg(message, renderFileContent);
+      renderChatMsg(message, renderFileContent, $target);
+      break;
+
+    // 수정/삭제/반응은 이미 그린 메세지만 고침
+    case 'EDIT':
+    case 'DELETE':
+    case 'REACTION':
+      applyMessageDelta(message);
       break;
 
     default:
-      renderChatMsg(message, renderTextContent);
+      renderChatMsg(message, renderTextContent, $target);
       break;
   }
 }
 
 
-function renderChatMsg(message, contentRenderer) {
+function renderChatMsg(message, contentRenderer, $target) {
   const isSelf = message.sender === loginUser.loginId;
 
   const containerDiv = $('<div>').addClass('chat-message-container');
+  if (message.id) {
+    containerDiv.attr('data-message-id', message.id);
+  }
 
   if (!isSelf) {
     containerDiv.append(
@@ -67,18 +81,35 @@ function renderChatMsg(message, contentRenderer) {
 
   const contentDiv = $('<div>').addClass('msg-content');
 
-  contentRenderer(message, contentDiv); // TALK, FILE 따로 렌더링
+  if (message.deleted) {
+    renderDeletedContent(contentDiv);
+  } else {
+    contentRenderer(message, contentDiv); // TALK, FILE 따로 렌더링
+  }
 
   msgDiv.append(contentDiv);
   containerDiv.append(msgDiv);
 
+  if (message.id && !message.deleted) {
+    if (message.edited) {
+      msgDiv.append($('<span>').addClass('msg-edited').text('(수정됨)'));
+    }
+    containerDiv.append($('<div>').addClass('msg-reactions'));
+    containerDiv.append(renderMessageActions(message, isSelf));
+    renderReactions(containerDiv, message.reactions || {});
+  }
+
+  if ($target) {
+    $target.append(containerDiv);
+    return;
+  }
 
   $('#chatBox').append(containerDiv);
   scrollToBottom();
 }
 
 // LEAVE, INVITE 일 때 채팅창 표시
-function renderEventMsg(message) {
+function renderEventMsg(message, $target) {
   if (message.roomType === "PRIVATE"){
     return;
   }
@@ -86,6 +117,11 @@ function renderEventMsg(message) {
       .addClass('chat-event-message')
       .text(message.message);
 
+  if ($target) {
+    $target.append(eventDiv);
+    return;
+  }
+
   $('#chatBox').append(eventDiv);
   scrollToBottom();
 }
@@ -126,6 +162,120 @@ function renderFileContent(message, contentDiv) {
 }
 
 
+// 삭제된 메세지 자리
+function renderDeletedContent(contentDiv) {
+  contentDiv.empty().append($('<span>').addClass('msg-deleted').text('삭제된 메시지입니다.'));
+}
+
+// 반응 버튼 + 내 메세지면 수정/삭제
+function renderMessageActions(message, isSelf) {
+  const actionsDiv = $('<div>').addClass('msg-actions');
+
+  reactionEmojis.forEach(emoji => {
+    actionsDiv.append(
+        $('<button>').attr('type', 'button').text(emoji)
+            .on('click', () => toggleReaction(message.id, emoji))
+    );
+  });
+
+  if (isSelf) {
+    if (message.type === 'TALK') {
+      actionsDiv.append(
+          $('<button>').attr('type', 'button').text('수정')
+              .on('click', () => editMessage(message.id))
+      );
+    }
+    actionsDiv.append(
+        $('<button>').attr('type', 'button').text('삭제')
+            .on('click', () => deleteMessage(message.id))
+    );
+  }
+  return actionsDiv;
+}
+
+// 반응 수 표시 (0 이면 숨김)
+function renderReactions(containerDiv, reactions) {
+  containerDiv.data('reactions', reactions);
+
+  const reactionsDiv = containerDiv.find('.msg-reactions').empty();
+  Object.entries(reactions).forEach(([emoji, count]) => {
+    if (count <= 0) return;
+    reactionsDiv.append(
+        $('<span>').addClass('msg-reaction').text(`${emoji} ${count}`)
+            .on('click', () => toggleReaction(containerDiv.data('message-id'), emoji))
+    );
+  });
+}
+
+/**
+ * 수정/삭제/반응 delta 반영 (화면에 없는 메세지는 다음에 불러올 때 반영되어 옴)
+ */
+function applyMessageDelta(delta) {
+  const containerDiv = $(`.chat-message-container[data-message-id="${delta.messageId}"]`);
+  if (containerDiv.length === 0) return;
+
+  const msgDiv = containerDiv.find('.chat-message');
+
+  switch (delta.type) {
+    case 'EDIT':
+      msgDiv.find('.msg-content').html(linkify(delta.message));
+      if (msgDiv.find('.msg-edited').length === 0) {
+        msgDiv.append($('<span>').addClass('msg-edited').text('(수정됨)'));
+      }
+      break;
+
+    case 'DELETE':
+      renderDeletedContent(msgDiv.find('.msg-content'));
+      msgDiv.find('.msg-edited').remove();
+      containerDiv.find('.msg-reactions, .msg-actions').remove();
+      break;
+
+    case 'REACTION': {
+      const reactions = Object.assign({}, containerDiv.data('reactions'));
+      reactions[delta.emoji] = (reactions[delta.emoji] || 0) + delta.delta;
+      if (reactions[delta.emoji] <= 0) delete reactions[delta.emoji];
+      renderReactions(containerDiv, reactions);
+      break;
+    }
+  }
+}
+
+function editMessage(messageId) {
+  const current = $(`.chat-message-container[data-message-id="${messageId}"] .msg-content`).text();
+
+  inputAlert({ title: '메시지 수정', input: 'text', value: current })
+      .then(result => {
+        if (!result.isConfirmed || !result.value || !result.value.trim()) return;
+        stompClient.send("/pub/chat/edit", {}, JSON.stringify({
+          roomId: roomId,
+          messageId: messageId,
+          message: result.value.trim()
+        }));
+      });
+}
+
+function deleteMessage(messageId) {
+  confirmAlert({ icon: 'warning', text: "메시지를 삭제하시겠습니까?" })
+      .then(result => {
+        if (!result.isConfirmed) return;
+        stompClient.send("/pub/chat/delete", {}, JSON.stringify({
+          roomId: roomId,
+          messageId: messageId
+        }));
+      });
+}
+
+// 같은 반응을 다시 누르면 취소
+function toggleReaction(messageId, emoji) {
+  if (!stompClient || !messageId) return;
+  stompClient.send("/pub/chat/react", {}, JSON.stringify({
+    roomId: roomId,
+    messageId: messageId,
+    emoji: emoji
+  }));
+}
+
+
 function scrollToBottom() {
   const chatBox = $('#chatBox');
   chatBox.scrollTop(chatBox[0].scrollHeight);
@@ -143,20 +293,24 @@ function handleFileUpload(event) {
   const file = event.target.files[0];
   if (!file) return;
 
+  // 큰 파일은 조각으로 나눠 올림 (끊겨도 이어서)
+  if (file.size > chunkedUploadThreshold) {
+    uploadFileChunked(file);
+    event.target.value = "";
+    return;
+  }
+
   const formData = new FormData();
   formData.append("chatFile", file);
-  formData.append("roomId", roomId);
-  formData.append("sender", loginUser.loginId);
 
+  // 저장이 끝나면 서버가 방에 FILE 메세지를 보내줌
   $.ajax({
-    url: '/chat/upload',
+    url: '/chat/upload/' + roomId,
     type: 'POST',
     data: formData,
     contentType: false,
     processData: false,
-    success: function(messageDto) {
-      // WebSocket 전송
-      stompClient.send("/pub/chat/message", {}, JSON.stringify(messageDto));
+    success: function() {
       sendAlarmToUser(roomId, "파일을 보냈습니다.")
     },
     error: function(err) {
@@ -169,6 +323,93 @@ function handleFileUpload(event) {
 }
 
 
+const chunkedUploadThreshold = 8 * 1024 * 1024;
+const chunkRetryLimit = 3;
+
+/**
+ * 분할 업로드: 시작 → 조각 업로드 → 완료
+ * 같은 파일을 다시 선택하면 받은 조각은 건너뛰고 이어서 올림
+ */
+async function uploadFileChunked(file) {
+  const targetRoomId = roomId;
+  const resumeKey = `chunkedUpload:${targetRoomId}:${file.name}:${file.size}:${file.lastModified}`;
+
+  try {
+    let status = await findChunkedUpload(localStorage.getItem(resumeKey));
+    if (!status) {
+      status = await $.ajax({
+        url: '/chat/upload/chunked?roomId=' + targetRoomId,
+        type: 'POST',
+        contentType: 'application/json',
+        data: JSON.stringify({ fileName: file.name, fileType: file.type, size: file.size })
+      });
+      localStorage.setItem(resumeKey, status.uploadId);
+    }
+
+    const received = new Set(status.receivedChunks);
+    for (let index = 0; index < status.totalChunks; index++) {
+      if (received.has(index)) continue;
+      const start = index * status.chunkSize;
+      await uploadChunk(status.uploadId, index, file.slice(start, Math.min(file.size, start + status.chunkSize)));
+    }
+
+    // 저장이 끝나면 서버가 방에 FILE 메세지를 보내줌 (업로드가 몰려 503 이면 잠시 후 재시도)
+    for (let attempt = 1; ; attempt++) {
+      try {
+        await $.ajax({ url: `/chat/upload/chunked/${status.uploadId}/complete`, type: 'POST' });
+        break;
+      } catch (err) {
+        if (err.status !== 503 || attempt >= chunkRetryLimit) throw err;
+        await new Promise(resolve => setTimeout(resolve, 1000 * (Number(err.getResponseHeader('Retry-After')) || attempt)));
+      }
+    }
+    localStorage.removeItem(resumeKey);
+    sendAlarmToUser(targetRoomId, "파일을 보냈습니다.");
+  } catch (err) {
+    basicAlert({
+      icon: 'error',
+      text: err.responseJSON?.msg || '파일 업로드에 실패했습니다. 같은 파일을 다시 선택하면 이어서 올립니다.'
+    });
+  }
+}
+
+// 진행 중이던 업로드 상태 (없거나 만료되었으면 null)
+function findChunkedUpload(uploadId) {
+  if (!uploadId) return Promise.resolve(null);
+  return $.ajax({ url: '/chat/upload/chunked/' + uploadId, type: 'GET' })
+      .then(status => status, () => null);
+}
+
+// 조각 한 개 (실패 시 잠깐 쉬었다가 재시도)
+async function uploadChunk(uploadId, index, blob) {
+  const buffer = await blob.arrayBuffer();
+  const sha256 = await sha256Hex(buffer);
+
+  for (let attempt = 1; ; attempt++) {
+    try {
+      return await $.ajax({
+        url: `/chat/upload/chunked/${uploadId}/chunks/${index}`,
+        type: 'PUT',
+        data: buffer,
+        processData: false,
+        contentType: 'application/octet-stream',
+        headers: sha256 ? { 'X-Chunk-Sha256': sha256 } : {}
+      });
+    } catch (err) {
+      if (attempt >= chunkRetryLimit) throw err;
+      await new Promise(resolve => setTimeout(resolve, 1000 * attempt));
+    }
+  }
+}
+
+// https/localhost 가 아니면 crypto.subtle 이 없음 → 서버가 계산한 체크섬만 사용
+async function sha256Hex(buffer) {
+  if (!window.crypto || !window.crypto.subtle) return null;
+  const hash = await window.crypto.subtle.digest('SHA-256', buffer);
+  return Array.from(new Uint8Array(hash)).map(b => b.toString(16).padStart(2, '0')).join('');
+}
+
+
 // 링크 표시 url
 function linkify(text) {
   const urlRegex = /(https?:\/\/[^\s]+)/g;
@@ -178,12 +419,21 @@ function linkify(text) {
 }
 
 
+const historyPageSize = 50;
+let oldestMessageId = null;   // 화면에 그려진 가장 오래된 메세지 id
+let hasMoreHistory = false;
+let historyLoading = false;
+
 /**
- * 해당 채팅방 메세지 전부 가져오기
+ * 해당 채팅방 최근 메세지 한 페이지 가져오기
  */
 function messageOutput(roomId) {
 
   $('#chatBox').empty();
+  oldestMessageId = null;
+  hasMoreHistory = false;
+  resetRoomState();
+  syncPending = true;
 
   $.ajax({
     url: "/chat/messages",
@@ -192,14 +442,67 @@ function messageOutput(roomId) {
     data : JSON.stringify({
       roomId,
       sender: loginUser.loginId,
+      size: historyPageSize,
     }),
-    success: function(messages) {
-      messages.forEach(function(message) {
-        drawMessage(message);
-      });
+    success: function(messages, status, xhr) {
+      const seq = xhr.getResponseHeader('X-Room-Seq');
+      lastSeq = seq !== null ? Number(seq) : null;
+
+      messages.forEach(receiveRoomMessage);
+      updateHistoryCursor(messages);
+      releaseHeldMessages();
     },
     error: function(err) {
       console.error("메시지 불러오기 실패", err);
+      releaseHeldMessages();
+    }
+  });
+}
+
+/**
+ * 스크롤을 맨 위로 올리면 이전 메세지 페이지 가져오기
+ */
+function loadOlderMessages() {
+  if (!roomId || !hasMoreHistory || historyLoading) return;
+  historyLoading = true;
+
+  const requestRoomId = roomId;
+  $.ajax({
+    url: "/chat/messages",
+    type: "POST",
+    contentType: "application/json",
+    data : JSON.stringify({
+      roomId: requestRoomId,
+      sender: loginUser.loginId,
+      beforeId: oldestMessageId,
+      size: historyPageSize,
+    }),
+    success: function(messages) {
+      if (requestRoomId !== roomId) return; // 그 사이 다른 방으로 이동
+
+      const chatBox = $('#chatBox');
+      const prevHeight = chatBox[0].scrollHeight;
+
+      const $page = $('<div>');
+      messages.forEach(message => drawMessage(message, $page));
+      chatBox.prepend($page.children());
+
+      // 보고 있던 위치 유지
+      chatBox.scrollTop(chatBox[0].scrollHeight - prevHeight);
+      updateHistoryCursor(messages);
+    },
+    error: function(err) {
+      console.error("이전 메시지 불러오기 실패", err);
+    },
+    complete: function() {
+      historyLoading = false;
     }
   });
+}
+
+function updateHistoryCursor(messages) {
+  hasMoreHistory = messages.length >= historyPageSize;
+  if (messages.length > 0 && messages[0].id) {
+    oldestMessageId = messages[0].id;
+  }
 }
\ No newline at end of file
@@ -123,14 +123,28 @@ function enterRoom(room_id) {
   $('#chatBox').show();
 
   roomId = room_id;
+  resetRoomState();
 
-  // 이전 구독 해제
+  subscribeRoom(roomId);
+
+  messageOutput(roomId)
+
+}
+
+/**
+ * 채팅방 구독 (입장 / 재연결 시)
+ */
+function subscribeRoom(room_id) {
+
+  // 이전 구독 해제 (재연결 시에는 이미 끊긴 구독)
   if(chatSubscription) {
-    chatSubscription.unsubscribe();
+    try {
+      chatSubscription.unsubscribe();
+    } catch (e) {}
   }
 
   // 새로운 구독
-  chatSubscription = stompClient.subscribe("/sub/chat/room/" + roomId, function(messageOutput) {
+  chatSubscription = stompClient.subscribe("/sub/chat/room/" + room_id, function(messageOutput) {
     const msg = JSON.parse(messageOutput.body);
     const sender = msg.sender;
 
@@ -141,15 +155,18 @@ function enterRoom(room_id) {
     if (msg.type === 'TYPING') {
       addTypingBubble(sender);
       typingUsers.set(sender, Date.now());
-    } else {
-      removeTypingBubble(sender);
-      drawMessage(msg);
+    } else if (isMessageDelta(msg)) {
+      // 수정/삭제/반응은 채팅 목록을 다시 불러오지 않음
+      receiveRoomFrame(msg);
+    } else if (receiveRoomFrame(msg)) {
       showChattingList();
     }
   });
+}
 
-  messageOutput(roomId)
 
+function isMessageDelta(msg) {
+  return msg.type === 'EDIT' || msg.type === 'DELETE' || msg.type === 'REACTION';
 }
 
 
@@ -131,6 +131,7 @@ $(function() {
 				cancelButtonText: '취소',
 				input: data.input,
 				inputPlaceholder: data.placeholder,
+				inputValue: data.value || '',
 			}).then((result) => {
 				resolve(result);
 				// fire,then에 대한 오류를 반환.
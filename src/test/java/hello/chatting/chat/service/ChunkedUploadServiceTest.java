@@ -0,0 +1,197 @@
+package hello.chatting.chat.service;
+
+import hello.chatting.chat.dto.ChatMessageDto;
+import hello.chatting.chat.dto.ChunkUploadResultDto;
+import hello.chatting.chat.dto.ChunkedUploadInitReqDto;
+import hello.chatting.chat.dto.ChunkedUploadStatusDto;
+import hello.chatting.websocket.RoomDispatcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 분할 업로드 조각 위치/길이/체크섬 처리 (조각 64KB × 2 + 마지막 10 byte)
+ */
+class ChunkedUploadServiceTest {
+
+    private static final int CHUNK = 64 * 1024;
+    private static final long SIZE = CHUNK * 2L + 10;
+
+    @TempDir
+    Path tempDir;
+
+    private ChatService chatService;
+    private ChunkedUploadService service;
+    private String uploadId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        chatService = mock(ChatService.class);
+        service = new ChunkedUploadService(chatService, mock(RoomDispatcher.class));
+        ReflectionTestUtils.setField(service, "tempPath", tempDir.toString());
+        ReflectionTestUtils.setField(service, "maxFileSize", 10L * 1024 * 1024);
+        ReflectionTestUtils.setField(service, "defaultChunkSize", CHUNK);
+        ReflectionTestUtils.setField(service, "maxChunkSize", CHUNK);
+        ReflectionTestUtils.setField(service, "maxSessionsPerUser", 5);
+        ReflectionTestUtils.setField(service, "idleMinutes", 30L);
+
+        ChunkedUploadStatusDto status = service.init("alice", 1L, ChunkedUploadInitReqDto.builder()
+                .fileName("a.bin")
+                .size(SIZE)
+                .build());
+        uploadId = status.uploadId();
+
+        assertThat(status.chunkSize()).isEqualTo(CHUNK);
+        assertThat(status.totalChunks()).isEqualTo(3);
+        assertThat(Files.size(part())).isEqualTo(SIZE);
+    }
+
+    @Test
+    void writesChunkAtItsOffset() throws Exception {
+        byte[] data = filled(CHUNK, 7);
+
+        ChunkUploadResultDto result = service.writeChunk("alice", uploadId, 1, null, new ByteArrayInputStream(data));
+
+        byte[] file = Files.readAllBytes(part());
+        assertThat(Arrays.copyOfRange(file, CHUNK, CHUNK * 2)).isEqualTo(data);
+        assertThat(file[CHUNK - 1]).isZero();
+        assertThat(file[CHUNK * 2]).isZero();
+        assertThat(result.sha256()).isEqualTo(sha256(data));
+        assertThat(result.receivedCount()).isEqualTo(1);
+        assertThat(received()).containsExactly(1);
+    }
+
+    @Test
+    void lastChunkMustMatchRemainingLength() throws Exception {
+        assertThatThrownBy(() -> service.writeChunk("alice", uploadId, 2, null, new ByteArrayInputStream(filled(11, 1))))
+                .hasMessage("조각 크기가 맞지 않습니다.");
+        assertThatThrownBy(() -> service.writeChunk("alice", uploadId, 2, null, new ByteArrayInputStream(filled(9, 1))))
+                .hasMessage("조각 크기가 맞지 않습니다.");
+        assertThat(received()).isEmpty();
+
+        service.writeChunk("alice", uploadId, 2, null, new ByteArrayInputStream(filled(10, 1)));
+        assertThat(received()).containsExactly(2);
+    }
+
+    @Test
+    void checksumIsComparedIgnoringCase() throws Exception {
+        byte[] data = filled(CHUNK, 3);
+
+        service.writeChunk("alice", uploadId, 0, sha256(data).toUpperCase(), new ByteArrayInputStream(data));
+
+        assertThat(received()).containsExactly(0);
+    }
+
+    @Test
+    void failedRewriteUnmarksPreviouslyReceivedChunk() throws Exception {
+        byte[] data = filled(CHUNK, 3);
+        service.writeChunk("alice", uploadId, 0, sha256(data), new ByteArrayInputStream(data));
+        assertThat(received()).containsExactly(0);
+
+        byte[] corrupted = filled(CHUNK, 4);
+        assertThatThrownBy(() -> service.writeChunk("alice", uploadId, 0, sha256(data), new ByteArrayInputStream(corrupted)))
+                .hasMessage("조각 체크섬이 맞지 않습니다. 다시 업로드해주세요.");
+
+        // 이미 덮어쓴 조각은 다시 받아야 함
+        assertThat(received()).isEmpty();
+    }
+
+    @Test
+    void rejectsIndexOutOfRange() {
+        assertThatThrownBy(() -> service.writeChunk("alice", uploadId, -1, null, new ByteArrayInputStream(new byte[0])))
+                .hasMessage("잘못된 조각 번호입니다.");
+        assertThatThrownBy(() -> service.writeChunk("alice", uploadId, 3, null, new ByteArrayInputStream(new byte[0])))
+                .hasMessage("잘못된 조각 번호입니다.");
+    }
+
+    @Test
+    void rejectsOtherUsersUpload() {
+        assertThatThrownBy(() -> service.writeChunk("bob", uploadId, 0, null, new ByteArrayInputStream(filled(CHUNK, 1))))
+                .hasMessage("업로드 정보를 찾을 수 없습니다. 처음부터 다시 업로드해주세요.");
+    }
+
+    @Test
+    void completeRequiresAllChunks() throws Exception {
+        service.writeChunk("alice", uploadId, 0, null, new ByteArrayInputStream(filled(CHUNK, 1)));
+
+        assertThatThrownBy(() -> service.complete("alice", uploadId, new ChatUploadService.UploadAttempt()))
+                .hasMessage("아직 받지 못한 조각이 있습니다.");
+    }
+
+    @Test
+    void failedSaveMovesFileBackAndCanComplete() throws Exception {
+        writeAllChunks();
+        Path stored = tempDir.resolve("stored.bin");
+        when(chatService.moveChatFile(eq(part()), eq("a.bin"), any())).thenAnswer(invocation -> {
+            Files.move(part(), stored);
+            return new ChatService.StoredFile(stored, "/files/stored.bin", "a.bin", null);
+        });
+        when(chatService.saveChatFile(any(), eq(1L), eq("alice")))
+                .thenThrow(new RuntimeException("insert failed"))
+                .thenReturn(ChatMessageDto.builder().id(10L).roomId(1L).build());
+
+        assertThatThrownBy(() -> service.complete("alice", uploadId, new ChatUploadService.UploadAttempt()))
+                .hasMessage("insert failed");
+        assertThat(part()).exists();
+        assertThat(stored).doesNotExist();
+        assertThat(received()).containsExactly(0, 1, 2);
+
+        assertThat(service.complete("alice", uploadId, new ChatUploadService.UploadAttempt()).getId()).isEqualTo(10L);
+        assertThat(stored).exists();
+    }
+
+    @Test
+    void timedOutCompleteDoesNotSave() throws Exception {
+        writeAllChunks();
+        ChatUploadService.UploadAttempt timedOut = new ChatUploadService.UploadAttempt();
+        ReflectionTestUtils.invokeMethod(timedOut, "timeout");
+
+        assertThatThrownBy(() -> service.complete("alice", uploadId, timedOut))
+                .hasMessage(ChatUploadService.TIMEOUT_MESSAGE);
+        verify(chatService, never()).moveChatFile(any(), any(), any());
+        assertThat(part()).exists();
+        assertThat(received()).containsExactly(0, 1, 2);
+    }
+
+    private void writeAllChunks() throws Exception {
+        service.writeChunk("alice", uploadId, 0, null, new ByteArrayInputStream(filled(CHUNK, 1)));
+        service.writeChunk("alice", uploadId, 1, null, new ByteArrayInputStream(filled(CHUNK, 2)));
+        service.writeChunk("alice", uploadId, 2, null, new ByteArrayInputStream(filled(10, 3)));
+    }
+
+    private Path part() {
+        return tempDir.resolve(uploadId + ".part");
+    }
+
+    private List<Integer> received() throws Exception {
+        return service.status("alice", uploadId).receivedChunks();
+    }
+
+    private static byte[] filled(int length, int value) {
+        byte[] data = new byte[length];
+        Arrays.fill(data, (byte) value);
+        return data;
+    }
+
+    private static String sha256(byte[] data) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+    }
+}
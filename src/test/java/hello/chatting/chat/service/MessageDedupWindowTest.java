@@ -0,0 +1,54 @@
+package hello.chatting.chat.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessageDedupWindowTest {
+
+    private MessageDedupWindow window;
+
+    @BeforeEach
+    void setUp() {
+        window = new MessageDedupWindow();
+        ReflectionTestUtils.setField(window, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(window, "maxPerSender", 2);
+    }
+
+    @Test
+    void findsRememberedMessageOfSameSender() {
+        window.remember("alice", "c1", 10L);
+
+        assertThat(window.find("alice", "c1")).isEqualTo(10L);
+        assertThat(window.find("alice", "c2")).isNull();
+        assertThat(window.find("bob", "c1")).isNull();
+    }
+
+    @Test
+    void evictsOldestBeyondMaxPerSender() {
+        window.remember("alice", "c1", 1L);
+        window.remember("alice", "c2", 2L);
+        window.remember("alice", "c3", 3L);
+        window.remember("bob", "c1", 4L);
+
+        assertThat(window.find("alice", "c1")).isNull();
+        assertThat(window.find("alice", "c2")).isEqualTo(2L);
+        assertThat(window.find("alice", "c3")).isEqualTo(3L);
+        assertThat(window.find("bob", "c1")).isEqualTo(4L);
+    }
+
+    @Test
+    void expiredEntriesAreIgnoredAndSwept() {
+        ReflectionTestUtils.setField(window, "ttlSeconds", -1L);
+        window.remember("alice", "c1", 1L);
+
+        assertThat(window.find("alice", "c1")).isNull();
+
+        window.sweep();
+        assertThat((Map<?, ?>) ReflectionTestUtils.getField(window, "windows")).isEmpty();
+    }
+}
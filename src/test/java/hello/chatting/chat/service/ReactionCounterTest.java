@@ -0,0 +1,59 @@
+package hello.chatting.chat.service;
+
+import hello.chatting.chat.repository.ChatMessageEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * flush 로 꺼낸 증감은 커밋되면 비워지고, 롤백되면 다시 쌓임
+ */
+class ReactionCounterTest {
+
+    private final ChatMessageEventRepository repository = mock(ChatMessageEventRepository.class);
+    private final ReactionCounter counter = new ReactionCounter(repository);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void keepsDrainedDeltasClearedAfterCommit() {
+        counter.add(1L, "👍", 2);
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        verify(repository).addReactionCount(1L, "👍", 2);
+        assertThat(counter.pendingDeltas(List.of(1L))).isEmpty();
+    }
+
+    @Test
+    void requeuesDrainedDeltasWhenCommitRollsBack() {
+        counter.add(1L, "👍", 2);
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        counter.add(1L, "👍", 1);
+
+        assertThat(counter.pendingDeltas(List.of(1L))).isEqualTo(Map.of(1L, Map.of("👍", 3L)));
+    }
+
+    // 트랜잭션 안에서 flush 한 뒤 커밋/롤백 완료 콜백만 흉내
+    private void complete(int status) {
+        TransactionSynchronizationManager.initSynchronization();
+        counter.flush();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
@@ -0,0 +1,153 @@
+package hello.chatting.chat.service;
+
+import hello.chatting.chat.dto.ChatMessageDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecentMessageBufferTest {
+
+    private static final Long ROOM_ID = 1L;
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private RecentMessageBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new RecentMessageBuffer();
+        ReflectionTestUtils.setField(buffer, "capacity", 5);
+        ReflectionTestUtils.setField(buffer, "maxRooms", 10);
+        ReflectionTestUtils.setField(buffer, "idleMinutes", 30L);
+        ReflectionTestUtils.setField(buffer, "gapTimeoutMs", 5000L);
+    }
+
+    @Test
+    void missesUntilSeeded() {
+        assertThat(buffer.latest(ROOM_ID, null, 2)).isEmpty();
+
+        buffer.prepare(ROOM_ID);
+        assertThat(buffer.latest(ROOM_ID, null, 2)).isEmpty();
+
+        buffer.seed(ROOM_ID, messages(1, 3), true, 3);
+        assertThat(ids(buffer.latest(ROOM_ID, null, 2))).containsExactly(2L, 3L);
+        assertThat(buffer.latest(ROOM_ID, null, 2).orElseThrow().seq()).isEqualTo(3);
+    }
+
+    @Test
+    void appliesChangesCommittedWhileSeedingAfterSeedSeq() {
+        buffer.prepare(ROOM_ID);
+        buffer.append(message(3)); // 스냅샷에 이미 있음
+        buffer.append(message(4));
+
+        buffer.seed(ROOM_ID, messages(1, 3), true, 3);
+
+        assertThat(ids(buffer.latest(ROOM_ID, null, 5))).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(buffer.latest(ROOM_ID, null, 5).orElseThrow().seq()).isEqualTo(4);
+    }
+
+    @Test
+    void appliesInSeqOrderAndIgnoresDuplicates() {
+        seed(messages(1, 2), true);
+
+        buffer.append(message(4));
+        assertThat(ids(buffer.latest(ROOM_ID, null, 5))).containsExactly(1L, 2L);
+        assertThat(buffer.latest(ROOM_ID, null, 5).orElseThrow().seq()).isEqualTo(2);
+
+        buffer.append(message(3));
+        buffer.append(message(4));
+
+        assertThat(ids(buffer.latest(ROOM_ID, null, 5))).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(buffer.latest(ROOM_ID, null, 5).orElseThrow().seq()).isEqualTo(4);
+    }
+
+    @Test
+    void dropsRoomWhenMissingSeqNeverArrives() throws InterruptedException {
+        ReflectionTestUtils.setField(buffer, "gapTimeoutMs", 0L);
+        seed(messages(1, 2), true);
+
+        buffer.append(message(4));
+        Thread.sleep(5);
+
+        assertThat(buffer.latest(ROOM_ID, null, 2)).isEmpty();
+    }
+
+    @Test
+    void trimsToCapacityAndStopsAnsweringBeyondIt() {
+        seed(messages(1, 5), true);
+        buffer.append(message(6));
+
+        assertThat(ids(buffer.latest(ROOM_ID, null, 5))).containsExactly(2L, 3L, 4L, 5L, 6L);
+        assertThat(buffer.latest(ROOM_ID, null, 6)).isEmpty();
+    }
+
+    @Test
+    void latestHidesMessagesBeforeCutoff() {
+        seed(messages(1, 4), false);
+
+        // cutoff 이전 메시지가 버퍼에 있으면 그 뒤로는 다 가지고 있음
+        assertThat(ids(buffer.latest(ROOM_ID, BASE.plusSeconds(2), 5))).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void latestMissesWhenPartialBufferCannotFillPage() {
+        seed(messages(1, 3), false);
+
+        assertThat(buffer.latest(ROOM_ID, null, 4)).isEmpty();
+    }
+
+    @Test
+    void updateReplacesBufferedMessageAndAdvancesSeq() {
+        seed(messages(1, 3), true);
+
+        buffer.update(ROOM_ID, 4, 2L, m -> m.toBuilder().message("edited").edited(true).build());
+        buffer.update(ROOM_ID, 5, 99L, m -> m.toBuilder().message("other").build()); // 버퍼에 없는 메시지
+
+        RecentMessageBuffer.Snapshot snapshot = buffer.latest(ROOM_ID, null, 3).orElseThrow();
+        assertThat(snapshot.messages().get(1).getMessage()).isEqualTo("edited");
+        assertThat(snapshot.messages().get(1).isEdited()).isTrue();
+        assertThat(snapshot.seq()).isEqualTo(5);
+    }
+
+    @Test
+    void evictDropsRoom() {
+        seed(messages(1, 3), true);
+
+        buffer.evict(ROOM_ID);
+
+        assertThat(buffer.latest(ROOM_ID, null, 1)).isEmpty();
+    }
+
+    private void seed(List<ChatMessageDto> messages, boolean wholeHistory) {
+        buffer.prepare(ROOM_ID);
+        buffer.seed(ROOM_ID, messages, wholeHistory, messages.get(messages.size() - 1).getSeq());
+    }
+
+    // id 1 → 순번 1, BASE + 1초 / id 2 → 순번 2, BASE + 2초 ...
+    private static List<ChatMessageDto> messages(long fromId, long toId) {
+        return LongStream.rangeClosed(fromId, toId).mapToObj(RecentMessageBufferTest::message).toList();
+    }
+
+    private static ChatMessageDto message(long id) {
+        return ChatMessageDto.builder()
+                .id(id)
+                .roomId(ROOM_ID)
+                .seq(id)
+                .sender("alice")
+                .message("m" + id)
+                .type("TALK")
+                .createdAt(BASE.plusSeconds(id))
+                .build();
+    }
+
+    private static List<Long> ids(Optional<RecentMessageBuffer.Snapshot> snapshot) {
+        assertThat(snapshot).isPresent();
+        return snapshot.get().messages().stream().map(ChatMessageDto::getId).toList();
+    }
+}
@@ -0,0 +1,330 @@
+package hello.chatting.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 방 단위 전송: 구독자 전달, 방 안 순서, 방 순번 순서 맞춤, 워커 큐 제한 (입력 중 표시만 버림)
+ * fan-out 처리량 측정은 CHAT_BENCHMARK=true 일 때만 실행 (방 크기별 초당 전달 수 출력)
+ */
+class RoomDispatcherTest {
+
+    private static final Long ROOM_ID = 1L;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorSubscribableChannel outboundChannel = new ExecutorSubscribableChannel();
+    private final AtomicInteger delivered = new AtomicInteger();
+    private final AtomicReference<CountDownLatch> blocker = new AtomicReference<>();
+    private final List<Message<?>> messages = new CopyOnWriteArrayList<>();
+
+    private RoomDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        CountDownLatch latch = blocker.get();
+        if (latch != null) {
+            latch.countDown();
+        }
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void deliversToEverySubscriberOfRoom() throws Exception {
+        dispatcher = dispatcher(2, 100, 500);
+        subscribe(ROOM_ID, 3);
+        subscribe(2L, 1);
+        awaitSubscribers(ROOM_ID, 3);
+
+        dispatcher.publish(ROOM_ID, null, Map.of("message", "hi"), null);
+
+        awaitDelivered(3);
+        assertThat(messages).extracting(m -> SimpMessageHeaderAccessor.getDestination(m.getHeaders()))
+                .containsOnly("/sub/chat/room/1");
+        assertThat(messages).extracting(m -> SimpMessageHeaderAccessor.getSessionId(m.getHeaders()))
+                .containsExactlyInAnyOrder("s0", "s1", "s2");
+    }
+
+    @Test
+    void keepsOrderWithinRoomAcrossParallelFanout() throws Exception {
+        dispatcher = dispatcher(1, 1000, 4);
+        ReflectionTestUtils.setField(dispatcher, "chunkSize", 2);
+        subscribe(ROOM_ID, 10);
+        awaitSubscribers(ROOM_ID, 10);
+
+        for (int i = 0; i < 50; i++) {
+            dispatcher.publish(ROOM_ID, null, Map.of("seq", i), null);
+        }
+
+        awaitDelivered(500);
+        List<String> toFirstSession = messages.stream()
+                .filter(m -> "s0".equals(SimpMessageHeaderAccessor.getSessionId(m.getHeaders())))
+                .map(m -> new String((byte[]) m.getPayload()))
+                .toList();
+        assertThat(toFirstSession).hasSize(50);
+        for (int i = 0; i < 50; i++) {
+            assertThat(toFirstSession.get(i)).contains("\"seq\":" + i + "}");
+        }
+    }
+
+    @Test
+    void sendsSavedFramesInRoomSeqOrder() throws Exception {
+        dispatcher = dispatcher(1, 100, 500);
+        subscribe(ROOM_ID, 1);
+        awaitSubscribers(ROOM_ID, 1);
+
+        dispatcher.publish(ROOM_ID, 1L, Map.of("seq", 1), null);
+        dispatcher.publish(ROOM_ID, 3L, Map.of("seq", 3), null); // 2 를 기다림
+        dispatcher.publish(ROOM_ID, null, Map.of("typing", true), null);
+        dispatcher.publish(ROOM_ID, 2L, Map.of("seq", 2), null);
+
+        awaitDelivered(4);
+        assertThat(payloads()).containsExactly("{\"seq\":1}", "{\"typing\":true}", "{\"seq\":2}", "{\"seq\":3}");
+    }
+
+    @Test
+    void skipsMissingSeqAfterReorderTimeout() throws Exception {
+        dispatcher = dispatcher(1, 100, 500);
+        ReflectionTestUtils.setField(dispatcher, "reorderTimeoutMs", 0L);
+        subscribe(ROOM_ID, 1);
+        awaitSubscribers(ROOM_ID, 1);
+
+        dispatcher.publish(ROOM_ID, 1L, Map.of("seq", 1), null);
+        dispatcher.publish(ROOM_ID, 3L, Map.of("seq", 3), null);
+        awaitDelivered(1);
+
+        dispatcher.releaseHeld();
+        awaitDelivered(2);
+
+        dispatcher.publish(ROOM_ID, 2L, Map.of("seq", 2), null); // 늦게 온 순번도 버리지 않음
+        awaitDelivered(3);
+        assertThat(payloads()).containsExactly("{\"seq\":1}", "{\"seq\":3}", "{\"seq\":2}");
+    }
+
+    @Test
+    void appliesOutboundChannelInterceptors() throws Exception {
+        dispatcher = dispatcher(1, 100, 500);
+        outboundChannel.addInterceptor(new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                return "s1".equals(SimpMessageHeaderAccessor.getSessionId(message.getHeaders())) ? null : message;
+            }
+        });
+        subscribe(ROOM_ID, 2);
+        awaitSubscribers(ROOM_ID, 2);
+
+        dispatcher.publish(ROOM_ID, null, Map.of("message", "hi"), null);
+
+        awaitDelivered(1);
+        Thread.sleep(100);
+        assertThat(delivered.get()).isEqualTo(1);
+    }
+
+    @Test
+    void dropsTypingWhenWorkerQueueIsFull() throws Exception {
+        dispatcher = dispatcher(1, 1, 500);
+        ReflectionTestUtils.setField(dispatcher, "offerTimeoutMs", 10L);
+        subscribe(ROOM_ID, 1);
+        awaitSubscribers(ROOM_ID, 1);
+
+        CountDownLatch release = new CountDownLatch(1);
+        blocker.set(release);
+        dispatcher.publishTyping(ROOM_ID, Map.of("seq", 1)); // 워커가 전송 중에 멈춤
+        awaitQueue(0);
+        dispatcher.publishTyping(ROOM_ID, Map.of("seq", 2)); // 큐에 대기
+        dispatcher.publishTyping(ROOM_ID, Map.of("seq", 3)); // 자리가 없어 버림
+
+        assertThat(registry.get("chat.dispatch.queue").tag("worker", "0").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("chat.dispatch.dropped").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        awaitDelivered(2);
+    }
+
+    @Test
+    void waitsForRoomInsteadOfDroppingMessages() throws Exception {
+        dispatcher = dispatcher(1, 1, 500);
+        ReflectionTestUtils.setField(dispatcher, "offerTimeoutMs", 10L);
+        subscribe(ROOM_ID, 1);
+        awaitSubscribers(ROOM_ID, 1);
+
+        CountDownLatch release = new CountDownLatch(1);
+        blocker.set(release);
+        dispatcher.publish(ROOM_ID, null, Map.of("seq", 1), null); // 워커가 전송 중에 멈춤
+        awaitQueue(0);
+        dispatcher.publish(ROOM_ID, null, Map.of("seq", 2), null); // 큐에 대기
+
+        CountDownLatch published = new CountDownLatch(1);
+        Thread publisher = new Thread(() -> {
+            dispatcher.publish(ROOM_ID, null, Map.of("seq", 3), null); // 자리가 날 때까지 기다림
+            published.countDown();
+        });
+        publisher.start();
+        assertThat(published.await(100, TimeUnit.MILLISECONDS)).isFalse();
+
+        release.countDown();
+        assertThat(published.await(5, TimeUnit.SECONDS)).isTrue();
+        awaitDelivered(3);
+        assertThat(registry.get("chat.dispatch.dropped").counter().count()).isZero();
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "CHAT_BENCHMARK", matches = "true")
+    void measureFanoutThroughputByRoomSize() throws Exception {
+        int messageCount = 200;
+        for (int roomSize : new int[]{10, 100, 500, 1000, 5000}) {
+            for (int threshold : new int[]{Integer.MAX_VALUE, 500}) {
+                delivered.set(0);
+                dispatcher = dispatcher(4, 10_000, threshold);
+                Long roomId = (long) roomSize;
+                subscribe(roomId, roomSize);
+                awaitSubscribers(roomId, roomSize);
+
+                long start = System.nanoTime();
+                for (int i = 0; i < messageCount; i++) {
+                    dispatcher.publish(roomId, null, Map.of("seq", i, "message", "benchmark"), null);
+                }
+                awaitDelivered(roomSize * messageCount);
+                long elapsed = System.nanoTime() - start;
+
+                System.out.printf("fanout room=%d parallel=%s messages=%d deliveries/s=%.0f ms/message=%.3f%n",
+                        roomSize, threshold <= roomSize, messageCount,
+                        roomSize * (double) messageCount / (elapsed / 1e9),
+                        elapsed / 1e6 / messageCount);
+                dispatcher.shutdown();
+                dispatcher = null;
+            }
+        }
+    }
+
+    private RoomDispatcher dispatcher(int workers, int queueCapacity, int parallelThreshold) {
+        SimpMessagingTemplate template = new SimpMessagingTemplate(new ExecutorSubscribableChannel());
+        template.setMessageConverter(new MappingJackson2MessageConverter());
+
+        RoomDispatcher dispatcher = new RoomDispatcher(provider(template), provider(new CountingHandler()), provider(outboundChannel),
+                registry, workers, 2, queueCapacity);
+        ReflectionTestUtils.setField(dispatcher, "enabled", true);
+        ReflectionTestUtils.setField(dispatcher, "parallelThreshold", parallelThreshold);
+        ReflectionTestUtils.setField(dispatcher, "chunkSize", 250);
+        ReflectionTestUtils.setField(dispatcher, "offerTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(dispatcher, "reorderTimeoutMs", 500L);
+        return dispatcher;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ObjectProvider<T> provider(T bean) {
+        ObjectProvider<T> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(bean);
+        return provider;
+    }
+
+    private void subscribe(Long roomId, int sessions) {
+        for (int i = 0; i < sessions; i++) {
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+            accessor.setDestination("/sub/chat/room/" + roomId);
+            accessor.setSessionId("s" + i);
+            accessor.setSubscriptionId("sub-" + roomId);
+            dispatcher.onSubscribe(new SessionSubscribeEvent(this, MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders())));
+        }
+    }
+
+    private void awaitSubscribers(Long roomId, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (dispatcher.subscriberCount(roomId) < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(dispatcher.subscriberCount(roomId)).isEqualTo(count);
+    }
+
+    private List<String> payloads() {
+        return messages.stream().map(m -> new String((byte[]) m.getPayload())).toList();
+    }
+
+    private void awaitDelivered(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (delivered.get() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(delivered.get()).isEqualTo(count);
+    }
+
+    // SubProtocolWebSocketHandler 대신 받은 메시지 수만 셈 (벤치마크에서 호출 기록이 쌓이지 않도록 mock 대신)
+    private class CountingHandler implements WebSocketHandler, MessageHandler {
+
+        @Override
+        public void handleMessage(Message<?> message) {
+            CountDownLatch latch = blocker.get();
+            if (latch != null) {
+                try {
+                    latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (messages.size() < 10_000) {
+                messages.add(message);
+            }
+            delivered.incrementAndGet();
+        }
+
+        @Override
+        public void afterConnectionEstablished(WebSocketSession session) {
+        }
+
+        @Override
+        public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) {
+        }
+
+        @Override
+        public void handleTransportError(WebSocketSession session, Throwable exception) {
+        }
+
+        @Override
+        public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) {
+        }
+
+        @Override
+        public boolean supportsPartialMessages() {
+            return false;
+        }
+    }
+
+    private void awaitQueue(int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (registry.get("chat.dispatch.queue").tag("worker", "0").gauge().value() != size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package hello.chatting.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.websocket.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.NativeWebSocketSession;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.net.SocketTimeoutException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 세션 송신 큐 정책: 첫 프레임 전송을 붙잡아 두고 뒤이은 프레임이 큐에서 어떻게 처리되는지 확인
+ */
+class SlowConsumerSessionTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch sending = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<WebSocketMessage<?>> sent = new CopyOnWriteArrayList<>();
+
+    private OutboundBackpressure policy;
+    private WebSocketSession delegate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        policy = new OutboundBackpressure(registry, 2);
+        ReflectionTestUtils.setField(policy, "softLimitBytes", 100L);
+        ReflectionTestUtils.setField(policy, "hardLimitBytes", 300L);
+        ReflectionTestUtils.setField(policy, "sendStuckMs", 200L);
+        ReflectionTestUtils.setField(policy, "coalesceTyping", true);
+
+        delegate = mock(WebSocketSession.class);
+        when(delegate.getId()).thenReturn("s1");
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            sent.add(invocation.getArgument(0));
+            return null;
+        }).when(delegate).sendMessage(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        policy.shutdown();
+    }
+
+    @Test
+    void dropsTypingWhenQueueIsOverSoftLimit() throws Exception {
+        SlowConsumerSession session = new SlowConsumerSession(delegate, policy);
+        session.sendMessage(text(80));
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        session.sendMessage(typing("alice"));
+        release.countDown();
+
+        verify(delegate, after(300).times(1)).sendMessage(any());
+        assertThat(registry.get("chat.outbound.dropped").tag("reason", "typing").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsOnlyLastTypingFramePerSender() throws Exception {
+        SlowConsumerSession session = new SlowConsumerSession(delegate, policy);
+        session.sendMessage(text(10));
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        session.sendMessage(typing("alice"));
+        session.sendMessage(typing("alice"));
+        release.countDown();
+
+        verify(delegate, after(300).times(2)).sendMessage(any());
+        assertThat(((TextMessage) sent.get(1)).getPayload()).contains("TYPING");
+        assertThat(registry.get("chat.outbound.dropped").tag("reason", "coalesced").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void marksSlowOverSoftLimitAndClosesOverHardLimit() throws Exception {
+        SlowConsumerSession session = new SlowConsumerSession(delegate, policy);
+        session.sendMessage(text(80));
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(session.isSlow()).isFalse();
+
+        session.sendMessage(text(150));
+        assertThat(session.isSlow()).isTrue();
+
+        session.sendMessage(text(100));
+        verify(delegate, timeout(5000)).close(SlowConsumerSession.RESUME_HINT);
+        assertThat(registry.get("chat.outbound.disconnected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void watchdogClosesSessionStuckInSend() throws Exception {
+        WebSocketHandler handler = mock(WebSocketHandler.class);
+        policy.decorate(handler).afterConnectionEstablished(delegate);
+        ArgumentCaptor<WebSocketSession> decorated = ArgumentCaptor.forClass(WebSocketSession.class);
+        verify(handler).afterConnectionEstablished(decorated.capture());
+
+        decorated.getValue().sendMessage(text(10));
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        policy.closeStuckSessions();
+        verify(delegate, never()).close(any());
+
+        Thread.sleep(300);
+        policy.closeStuckSessions();
+        verify(delegate, timeout(5000)).close(SlowConsumerSession.RESUME_HINT);
+    }
+
+    @Test
+    void limitsTomcatBlockingSendToSendStuckMs() throws Exception {
+        NativeWebSocketSession nativeSession = mock(NativeWebSocketSession.class);
+        Session wsSession = mock(Session.class);
+        Map<String, Object> userProperties = new HashMap<>();
+        when(nativeSession.getId()).thenReturn("s2");
+        when(nativeSession.getNativeSession(Session.class)).thenReturn(wsSession);
+        when(wsSession.getUserProperties()).thenReturn(userProperties);
+
+        policy.decorate(mock(WebSocketHandler.class)).afterConnectionEstablished(nativeSession);
+
+        assertThat(userProperties).containsEntry(OutboundBackpressure.BLOCKING_SEND_TIMEOUT, 200L);
+    }
+
+    @Test
+    void closesSessionWhenBlockingSendTimesOut() throws Exception {
+        WebSocketSession timingOut = mock(WebSocketSession.class);
+        when(timingOut.getId()).thenReturn("s3");
+        doThrow(new SocketTimeoutException()).when(timingOut).sendMessage(any());
+
+        new SlowConsumerSession(timingOut, policy).sendMessage(text(10));
+
+        verify(timingOut, timeout(5000)).close(SlowConsumerSession.RESUME_HINT);
+        assertThat(registry.get("chat.outbound.disconnected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void idleSessionIsNeverStuck() {
+        SlowConsumerSession session = new SlowConsumerSession(delegate, policy);
+
+        assertThat(session.markStuck(System.currentTimeMillis() + 60_000)).isFalse();
+    }
+
+    private static TextMessage text(int size) {
+        return new TextMessage("x".repeat(size));
+    }
+
+    // STOMP MESSAGE 프레임 형태의 타이핑 알림 (72 byte)
+    private static TextMessage typing(String sender) {
+        return new TextMessage("MESSAGE\ndestination:/sub/chat/room/1\n\n{\"type\":\"TYPING\",\"sender\":\"" + sender + "\"}");
+    }
+}
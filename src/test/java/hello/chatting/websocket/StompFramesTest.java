@@ -0,0 +1,46 @@
+package hello.chatting.websocket;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StompFramesTest {
+
+    @Test
+    void readsNumericRoomId() {
+        assertThat(StompFrames.findRoomId(body("{\"roomId\":12,\"message\":\"hi\"}"))).isEqualTo("12");
+    }
+
+    @Test
+    void readsQuotedRoomIdWithSpaces() {
+        assertThat(StompFrames.findRoomId(body("{\"message\":\"hi\", \"roomId\" : \"345\"}"))).isEqualTo("345");
+    }
+
+    @Test
+    void readsRoomIdAtEndOfBody() {
+        assertThat(StompFrames.findRoomId(body("{\"roomId\":7"))).isEqualTo("7");
+    }
+
+    @Test
+    void ignoresRoomIdInsideStringsAndNestedObjects() {
+        assertThat(StompFrames.findRoomId(body("{\"message\":\"\\\"roomId\\\":7\",\"roomId\":1}"))).isEqualTo("1");
+        assertThat(StompFrames.findRoomId(body("{\"message\":\"roomId\",\"roomId\":2}"))).isEqualTo("2");
+        assertThat(StompFrames.findRoomId(body("{\"reply\":{\"roomId\":9},\"roomId\":3}"))).isEqualTo("3");
+        assertThat(StompFrames.findRoomId(body("{\"message\":\"\\\"roomId\\\":7\"}"))).isNull();
+    }
+
+    @Test
+    void returnsNullWithoutNumericRoomId() {
+        assertThat(StompFrames.findRoomId(body("{\"message\":\"hi\"}"))).isNull();
+        assertThat(StompFrames.findRoomId(body("{\"roomId\":null}"))).isNull();
+        assertThat(StompFrames.findRoomId(body("{\"roomId\":\"abc\"}"))).isNull();
+        assertThat(StompFrames.findRoomId(body("{\"roomId\""))).isNull();
+        assertThat(StompFrames.findRoomId(new byte[0])).isNull();
+    }
+
+    private static byte[] body(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
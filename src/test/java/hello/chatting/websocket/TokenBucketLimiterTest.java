@@ -0,0 +1,84 @@
+package hello.chatting.websocket;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketLimiterTest {
+
+    @Test
+    void allowsBurstThenRejects() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 3);
+
+        assertThat(limiter.tryAcquire("alice")).isTrue();
+        assertThat(limiter.tryAcquire("alice")).isTrue();
+        assertThat(limiter.tryAcquire("alice")).isTrue();
+        assertThat(limiter.tryAcquire("alice")).isFalse();
+        assertThat(limiter.rejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void bucketsAreIndependentPerKey() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1);
+
+        assertThat(limiter.tryAcquire("alice")).isTrue();
+        assertThat(limiter.tryAcquire("alice")).isFalse();
+        assertThat(limiter.tryAcquire("bob")).isTrue();
+        assertThat(limiter.size()).isEqualTo(2);
+    }
+
+    @Test
+    void refillsOverTime() throws Exception {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(100, 1);
+
+        assertThat(limiter.tryAcquire("alice")).isTrue();
+        assertThat(limiter.tryAcquire("alice")).isFalse();
+
+        Thread.sleep(30);
+        assertThat(limiter.tryAcquire("alice")).isTrue();
+    }
+
+    @Test
+    void refundReturnsOneToken() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 2);
+
+        assertThat(limiter.tryAcquire("alice")).isTrue();
+        assertThat(limiter.tryAcquire("alice")).isTrue();
+        limiter.refund("alice");
+
+        assertThat(limiter.tryAcquire("alice")).isTrue();
+        assertThat(limiter.tryAcquire("alice")).isFalse();
+    }
+
+    @Test
+    void refundOfUnknownKeyIsIgnored() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1);
+
+        limiter.refund("alice");
+
+        assertThat(limiter.size()).isZero();
+        assertThat(limiter.tryAcquire("alice")).isTrue();
+        assertThat(limiter.tryAcquire("alice")).isFalse();
+    }
+
+    @Test
+    void evictsOnlyIdleBuckets() throws Exception {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1000, 1);
+        limiter.tryAcquire("idle");
+        Thread.sleep(30);
+        limiter.tryAcquire("busy");
+
+        limiter.evictIdle(TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThatThrownBy(() -> new TokenBucketLimiter(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucketLimiter(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}